@@ -5,17 +5,28 @@
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.http.*;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.*;
 
 @Command(name = "ecosystem-build", mixinStandardHelpOptions = true, version = "1.0",
@@ -124,11 +135,48 @@ public class EcosystemBuild implements Callable<Integer> {
     private static final String MOVE_UP = "\u001B[1A";
 
     private static final int TAIL_LINES = 10;
+    private static final int MIN_BUILDER_TAIL_LINES = 3;  // Per builder slot in concurrent mode
+    private static final int LOG_TAIL_CAPACITY = 64;  // Lines kept per log for the live display
+    private static final Duration FRAME_INTERVAL = Duration.ofMillis(250);  // Live display redraw rate
+    private static final long LOG_FLUSH_MILLIS = 1000;  // Log files lag the build output by at most this
+
+    private static final Duration ARCHIVE_RETENTION = Duration.ofDays(7);
+    private static final String MIRRORS_DIR = ".mirrors";  // Bare repository mirrors inside the work dir
+    private static final String WORKTREES_DIR = ".worktrees";  // Per-version worktrees of the mirrors
+    private static final String MIRROR_REFSPEC = "+refs/heads/*:refs/heads/*";  // Branches only, no pull request refs
+    private static final Duration MIRROR_GC_INTERVAL = Duration.ofDays(7);
+    private static final String RESULT_CACHE_DIR = ".result-cache";  // Cached build results by input hash
+    private static final String BASELINE_CACHE_DIR = ".baseline-cache";  // Original-version build results by commit and JDK
+    private static final String ISSUE_CACHE_DIR = ".issue-cache";  // Open build-failure issues with their ETags
+    private static final String GITHUB_API_URL = "https://api.github.com/repos/mstahv/vaadin-ecosystem-build";
+    private static final Pattern ISSUE_TITLE = Pattern.compile("Build failing: (.+) against Vaadin (.+)$");
+    private static final String LOG_ARCHIVE_DIR = ".log-archive";  // Compressed, deduplicated logs of earlier runs
+    private static final String PLAIN_ARCHIVE_MARKER = ".plain-run";  // In <version>-archives: the run kept as plain files
+    private static final String REPO_OVERLAYS_DIR = ".repo-overlays";  // Per-build local repository overlays
+
+    private static final String METADATA_CACHE_DIR = ".metadata-cache";  // vaadin-bom metadata with its validators
+    private static final String VAADIN_BOM_METADATA_URL = "https://repo1.maven.org/maven2/com/vaadin/vaadin-bom/maven-metadata.xml";
+    private static final String SNAPSHOT_REPOSITORY_URL = "https://maven.vaadin.com/vaadin-prereleases";  // As in settings.xml
+    private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("<timestamp>([^<]+)</timestamp>");
+    private static final Pattern SNAPSHOT_BUILD_NUMBER = Pattern.compile("<buildNumber>([^<]+)</buildNumber>");
+
+    // Flushes the log files of running processes, see readOutputWithTimeout
+    private static final ScheduledExecutorService LOG_FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "log-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Shared by all HTTP calls, so connections are reused
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
 
     private static final String FALLBACK_VERSION = "25.0.6";
     private static final Pattern PRE_RELEASE_PATTERN = Pattern.compile(".*-(alpha|beta|rc)\\d*$", Pattern.CASE_INSENSITIVE);
 
-    @Option(names = {"--vaadin.version", "-v"}, description = "Vaadin version to test against (default: latest from Maven Central)")
+    @Option(names = {"--vaadin.version", "-v"}, description = "Vaadin version to test against (default: latest from Maven Central); several comma-separated versions, which may include latest and pre-release, are tested in one run whose -j builder slots take the builds of all versions")
     private String vaadinVersion;
 
     @Option(names = {"--work-dir", "-w"}, description = "Working directory for cloning projects", defaultValue = "work")
@@ -140,6 +188,9 @@ public class EcosystemBuild implements Callable<Integer> {
     @Option(names = {"--projects", "-p"}, description = "Comma-separated list of project names to test (default: all)", split = ",")
     private List<String> selectedProjects;
 
+    @Option(names = {"--projects-file"}, description = "Test the projects listed in this file instead of the built-in ADDONS and APPS, one per line: addon|app <name> <repoUrl> [key=value...]")
+    private Path projectsFile;
+
     @Option(names = {"--quiet-downloads", "-q"}, description = "Silence Maven download progress messages")
     private boolean quietDownloads;
 
@@ -152,8 +203,62 @@ public class EcosystemBuild implements Callable<Integer> {
     @Option(names = {"--pre-release"}, description = "Auto-detect and test the latest pre-release version from Maven Central")
     private boolean preRelease;
 
+    @Option(names = {"--adaptive"}, description = "Start queued builds only while load, free memory and Java processes are within limits; -j is the maximum")
+    private boolean adaptive;
+
+    @Option(names = {"--max-load"}, description = "Adaptive mode: 1-minute load average limit (default: number of CPUs)")
+    private Double maxLoad;
+
+    @Option(names = {"--min-free-memory"}, description = "Adaptive mode: minimum available memory in MB (default: 2048)", defaultValue = "2048")
+    private long minFreeMemoryMb;
+
+    @Option(names = {"--max-java-processes"}, description = "Adaptive mode: maximum number of running Java/Maven processes (default: 0 = no limit)", defaultValue = "0")
+    private int maxJavaProcesses;
+
+    @Option(names = {"--sync-threads"}, description = "Number of concurrent repository clones/fetches (default: 4)", defaultValue = "4")
+    private int syncThreads;
+
+    @Option(names = {"--incremental"}, description = "Build without clean when a project's commit and options are unchanged since its last passing build of the version, reusing its build output and frontend bundle")
+    private boolean incremental;
+
+    @Option(names = {"--no-cache"}, description = "Always build, even if a project's inputs match a cached result")
+    private boolean noCache;
+
+    @Option(names = {"--layered-repo"}, description = "Give every build a private local repository overlay on top of the shared ~/.m2/repository (requires Maven 3.9+)")
+    private boolean layeredRepo;
+
+    @Option(names = {"--issues-source"}, description = "Open build-failure issues: a GitHub repository API URL or a JSON file in the GitHub issues API format (default: " + GITHUB_API_URL + ")")
+    private String issuesSource;
+
+    @Option(names = {"--list-archives"}, description = "List archived logs (of the -v version, or all versions) and exit")
+    private boolean listArchives;
+
+    @Option(names = {"--read-archive"}, description = "Write an archived log to stdout and exit, e.g. 25.0.0/2026-01-01_12-00-00/flow-viritin-build.log")
+    private String readArchive;
+
+    @Option(names = {"--coordinator"}, description = "Hand the builds out to workers connecting to this port instead of building locally; the workers' -j slots set how many builds are in flight")
+    private Integer coordinatorPort;
+
+    @Option(names = {"--worker"}, description = "Build the projects a coordinator at host:port hands out, on -j slots, with its Vaadin version")
+    private String coordinatorAddress;
+
+    @Option(names = {"--mvnd"}, description = "Run Maven on warm Maven Daemons (mvnd) instead of a fresh JVM per invocation")
+    private boolean useMvnd;
+
+    @Spec
+    private CommandLine.Model.CommandSpec spec;
+
     private boolean useCustomSettings = false;
-    private String cachedMavenMetadataXml;
+    private MavenLauncher mavenLauncher = new MvnLauncher();
+    private ExecutorService syncExecutor;
+    private LayeredRepository layeredRepository;  // Only set with --layered-repo
+    private Coordinator coordinator;  // Only set with --coordinator
+    private CompletableFuture<Map<String, String>> knownIssues;  // "project version" -> open issue URL
+    private final Map<Path, LogTail> logTails = new ConcurrentHashMap<>();  // Log file -> its latest lines
+    private final Map<String, Future<SyncResult>> sourceSyncs = new ConcurrentHashMap<>();  // Project -> source sync
+    private Set<Path> updatedMirrors = ConcurrentHashMap.newKeySet();  // Mirrors fetched by this process, also for later versions
+    private Map<Path, Object> mirrorLocks = new ConcurrentHashMap<>();  // Mirror -> lock held while syncing from it, by any version
+    private List<String> vaadinVersions;  // Versions in the vaadin-bom metadata, parsed once
     private Path versionOutputPath;  // Version-specific output directory for logs and reports
 
     // Project types
@@ -178,6 +283,8 @@ public class EcosystemBuild implements Callable<Integer> {
         boolean useAddonsRepo;   // Enable Vaadin Directory repository
         int timeoutMinutes;      // Per-project timeout (0 = use global default)
         boolean gitClean;        // Run git clean -fdx before build to remove all untracked files
+        boolean vaadinModulesOnly;  // Build only the reactor modules with a Vaadin dependency, and what they need
+        List<String> skipModules = List.of();  // Reactor modules (artifactId or path) not to build, unless needed
         List<String> extraMvnArgs = List.of();
         List<String> notifyUsers = List.of();  // GitHub usernames to mention in issues
         boolean ignored;
@@ -195,6 +302,8 @@ public class EcosystemBuild implements Callable<Integer> {
         boolean useAddonsRepo;
         int timeoutMinutes;      // Per-project timeout (0 = use global default)
         boolean gitClean;        // Run git clean -fdx before build to remove all untracked files
+        boolean vaadinModulesOnly;  // Build only the reactor modules with a Vaadin dependency, and what they need
+        List<String> skipModules = List.of();  // Reactor modules (artifactId or path) not to build, unless needed
         List<String> extraMvnArgs = List.of();
         List<String> notifyUsers = List.of();  // GitHub usernames to mention in issues
         boolean ignored;
@@ -203,15 +312,50 @@ public class EcosystemBuild implements Callable<Integer> {
     }
 
     // Test result
-    record TestResult(String projectName, ProjectType type, boolean success, String message, long durationMs, Path logFile) {
+    record TestResult(String projectName, ProjectType type, boolean success, String message, long durationMs, Path logFile,
+                      Failure failure) {
+        TestResult(String projectName, ProjectType type, boolean success, String message, long durationMs, Path logFile) {
+            this(projectName, type, success, message, durationMs, logFile, null);
+        }
+
         TestResult(String projectName, ProjectType type, boolean success, String message, long durationMs) {
-            this(projectName, type, success, message, durationMs, null);
+            this(projectName, type, success, message, durationMs, null, null);
+        }
+    }
+
+    // What kind of failure a build log shows, most specific first
+    enum FailureCategory {
+        TIMEOUT("Timeout"),
+        OUT_OF_MEMORY("Out of memory"),
+        DEPENDENCY_RESOLUTION("Dependency or snapshot resolution failure"),
+        VAADIN_API_COMPILATION("Compilation error against Vaadin API"),
+        COMPILATION("Compilation error"),
+        FRONTEND("Frontend or npm failure"),
+        TEST_FAILURE("Test failure"),
+        UNKNOWN("Unknown");
+
+        final String description;
+
+        FailureCategory(String description) {
+            this.description = description;
         }
     }
 
+    // Classified failure with the log lines that show it
+    record Failure(FailureCategory category, List<String> excerpt) {}
+
     // Build status for display
     enum BuildStatus { PENDING, WAITING, BUILDING, PASSED, FAILED, KNOWN_ISSUE, IGNORED }
 
+    // A project resolved against the Vaadin version under test, ready to be scheduled
+    record BuildTask(String name, String repoUrl, String branch, String buildSubdir,
+                     String javaVersion, boolean useAddonsRepo, List<String> extraMvnArgs,
+                     List<String> notifyUsers, ProjectType type, boolean ignored, String ignoreReason,
+                     int timeoutMinutes, boolean gitClean, boolean vaadinModulesOnly, List<String> skipModules) {}
+
+    // Outcome of bringing a project's working tree up to date
+    record SyncResult(boolean success, String message, long durationMs) {}
+
     // Metadata about a failed build - used to provide context in GitHub issues
     record FailureMetadata(String repoUrl, String originalVersion, boolean buildsWithOriginal, List<String> notifyUsers) {}
 
@@ -222,12 +366,67 @@ public class EcosystemBuild implements Callable<Integer> {
     private final Map<String, String> knownIssueUrls = new HashMap<>();  // Project -> GitHub issue URL
     private final Map<String, FailureMetadata> failureMetadata = new HashMap<>();  // Project -> failure context
     private final Set<String> flakyProjects = new HashSet<>();  // Projects that alternate between pass and fail
+    private final Map<String, String> commitShas = new ConcurrentHashMap<>();  // Project -> built commit
+    private final Map<String, String> originalVaadinVersions = new ConcurrentHashMap<>();  // Project -> version in its POM
+    private final Map<String, List<MojoTimer.Execution>> mojoTimings = new ConcurrentHashMap<>();  // Project -> Maven steps of its build
+    private final Map<String, TestResult> completedResults = new ConcurrentHashMap<>();  // Project -> result, as builds complete
+    private final Map<String, Reactor.Selection> reactorSelections = new ConcurrentHashMap<>();  // Project -> modules built, if not all
+    private BuildHistory history;
+    private ResultCache resultCache;
+    private ResultCache baselineCache;  // Builds with the project's original Vaadin version, shared by all versions
+    private String vaadinFingerprint;  // Hash of the resolved Vaadin artifacts, part of result cache keys
+    private final Map<String, String> resultCacheKeys = new ConcurrentHashMap<>();  // Project -> key of a completed build
+    private final Map<String, ResultCache.Entry> cacheHits = new ConcurrentHashMap<>();  // Project -> reused result
+    private String resolvedVaadinVersion;  // Timestamped snapshot version actually resolved by Maven
     private int lastOutputLines = 0;
+    private int statusTableBudget = 0;  // Lines the live status table may use, 0 = unlimited
+    private Path workPath;
+    private Instant runStartedAt;
+    private List<BuildTask> allTasks;  // In declaration order
+    private List<BuildTask> buildOrder;  // Longest expected build first if builds run concurrently
+    private final List<TestResult> results = Collections.synchronizedList(new ArrayList<>());  // Including the smoke test
+    private final List<Future<TestResult>> queuedBuilds = new ArrayList<>();  // In a pool, in submission order
+    private long buildStartTime;
+    private final AtomicLong buildEndTime = new AtomicLong();  // Last build or check completed in a pool
 
     @Override
     public Integer call() throws Exception {
+        if (listArchives || readArchive != null) {
+            return accessArchive();
+        }
+        if (vaadinVersion != null && vaadinVersion.contains(",")) {
+            return runVersionMatrix(List.of(vaadinVersion.split(",")));
+        }
+
+        Integer exitCode = prepare();
+        if (exitCode != null) {
+            return exitCode;
+        }
+        if (buildThreads == 1 && coordinator == null) {
+            buildSequentially();
+        } else {
+            BuildPool pool = new BuildPool(false);
+            pool.submit(this);
+            pool.awaitAll();
+            printFinalStatus();
+        }
+        return finish();
+    }
+
+    /**
+     * Everything before the builds: resolve the Vaadin version, collect the projects to test,
+     * start the source sync and run the smoke test. A worker builds for its coordinator here.
+     * @return The exit code if the run ends here, or null if the projects are to be built
+     */
+    private Integer prepare() throws Exception {
         // Resolve Vaadin version if not specified
-        if (vaadinVersion != null && !vaadinVersion.isBlank()) {
+        if (coordinatorAddress != null) {
+            // A worker builds whatever version its coordinator tests
+            vaadinVersion = Coordinator.vaadinVersionOf(coordinatorAddress);
+            useCustomSettings = true;
+            System.out.println("📦 Using Vaadin version of coordinator " + coordinatorAddress + ": " + vaadinVersion);
+            System.out.println();
+        } else if (vaadinVersion != null && !vaadinVersion.isBlank()) {
             // Explicit version specified - use pre-release settings for snapshots/betas
             useCustomSettings = true;
             System.out.println("📦 Using custom Vaadin version: " + vaadinVersion);
@@ -252,8 +451,29 @@ public class EcosystemBuild implements Callable<Integer> {
             System.out.println();
         }
 
-        Path workPath = Path.of(workDir);
+        if (useMvnd) {
+            if (isOnPath(MvndLauncher.EXECUTABLE)) {
+                mavenLauncher = new MvndLauncher();
+                System.out.println("🐘 Using Maven Daemon (mvnd) for Maven invocations");
+            } else {
+                System.err.println("⚠️  Warning: mvnd not found on PATH, falling back to mvn");
+            }
+        }
+
+        runStartedAt = Instant.now();
+        workPath = Path.of(workDir);
         Files.createDirectories(workPath);
+        history = BuildHistory.load(workPath);
+        resultCache = new ResultCache(workPath.resolve(RESULT_CACHE_DIR));
+        resultCache.prune(ARCHIVE_RETENTION);
+        baselineCache = new ResultCache(workPath.resolve(BASELINE_CACHE_DIR));
+        baselineCache.prune(ARCHIVE_RETENTION);
+        if (layeredRepo) {
+            // Per version, as the builds of other versions may still be using theirs
+            layeredRepository = new LayeredRepository(localRepository(),
+                    workPath.resolve(REPO_OVERLAYS_DIR).resolve(vaadinVersion).toAbsolutePath());
+            layeredRepository.discardAll();  // Leftovers of an interrupted run
+        }
 
         // Create version-specific output directory for logs and reports
         versionOutputPath = workPath.resolve(vaadinVersion);
@@ -263,46 +483,42 @@ public class EcosystemBuild implements Callable<Integer> {
             deleteDirectory(versionOutputPath);
         }
 
+        pruneWorktrees(workPath.resolve(WORKTREES_DIR));
+
         // Archive previous build logs before starting fresh
         archivePreviousLogs(workPath, vaadinVersion);
         Files.createDirectories(versionOutputPath);
 
-        // Run smoke test first to validate Vaadin version and cache artifacts
-        System.out.println("🔥 Running smoke test to validate Vaadin " + vaadinVersion + "...");
-        System.out.println();
-        TestResult smokeTestResult = runSmokeTest(workPath);
-        if (!smokeTestResult.success()) {
-            System.out.println();
-            System.out.printf("%s💥 Smoke test failed! Vaadin %s may not be available or compatible.%s%n",
-                    RED, vaadinVersion, RESET);
-            System.out.println("   Check " + smokeTestResult.logFile() + " for details.");
-            // Still write report with failed smoke test
-            long totalTimeMs = System.currentTimeMillis() - System.currentTimeMillis(); // ~0
-            printFinalSummary(List.of(smokeTestResult), smokeTestResult.durationMs());
-            return 1;
-        }
-        System.out.println();
-        System.out.printf("%s✅ Smoke test passed - Vaadin %s artifacts cached (%.1fs)%s%n",
-                GREEN, vaadinVersion, smokeTestResult.durationMs() / 1000.0, RESET);
-        System.out.println();
-
         // Build list of all projects to test
-        List<AddonProject> addonsToTest = ADDONS;
-        List<AppProject> appsToTest = APPS;
+        List<AddonProject> addons = ADDONS;
+        List<AppProject> apps = APPS;
+        if (projectsFile != null) {
+            addons = new ArrayList<>();
+            apps = new ArrayList<>();
+            try {
+                readProjectsFile(projectsFile, addons, apps);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("❌ Could not read projects file " + projectsFile + ": " + e.getMessage());
+                return 1;
+            }
+            System.out.println("📋 Testing " + (addons.size() + apps.size()) + " projects from " + projectsFile);
+        }
+        List<AddonProject> addonsToTest = addons;
+        List<AppProject> appsToTest = apps;
 
         // Filter projects if specific ones are requested
         if (selectedProjects != null && !selectedProjects.isEmpty()) {
-            addonsToTest = ADDONS.stream()
+            addonsToTest = addons.stream()
                     .filter(a -> selectedProjects.contains(a.name))
                     .toList();
-            appsToTest = APPS.stream()
+            appsToTest = apps.stream()
                     .filter(a -> selectedProjects.contains(a.name))
                     .toList();
             if (addonsToTest.isEmpty() && appsToTest.isEmpty()) {
                 System.err.println("❓ No matching projects found for: " + String.join(", ", selectedProjects));
                 var allNames = new ArrayList<String>();
-                ADDONS.forEach(a -> allNames.add(a.name));
-                APPS.forEach(a -> allNames.add(a.name));
+                addons.forEach(a -> allNames.add(a.name));
+                apps.forEach(a -> allNames.add(a.name));
                 System.err.println("📋 Available projects: " + allNames);
                 return 1;
             }
@@ -322,22 +538,8 @@ public class EcosystemBuild implements Callable<Integer> {
             projectTypes.put(app.name, ProjectType.APP);
         }
 
-        List<TestResult> results = Collections.synchronizedList(new ArrayList<>());
-        results.add(smokeTestResult);  // Include smoke test in report
-        long buildStartTime = System.currentTimeMillis();
-
-        // Print initial header
-        printHeader();
-        printStatusTable();
-        System.out.println();
-
         // Collect all projects to build
-        record BuildTask(String name, String repoUrl, String branch, String buildSubdir,
-                         String javaVersion, boolean useAddonsRepo, List<String> extraMvnArgs,
-                         List<String> notifyUsers, ProjectType type, boolean ignored, String ignoreReason,
-                         int timeoutMinutes, boolean gitClean) {}
-
-        List<BuildTask> allTasks = new ArrayList<>();
+        allTasks = new ArrayList<>();
         for (AddonProject addon : addonsToTest) {
             // Apply version-specific overrides if any
             VersionConfig vc = findVersionConfig(addon.versionOverrides, vaadinVersion);
@@ -349,7 +551,8 @@ public class EcosystemBuild implements Callable<Integer> {
 
             allTasks.add(new BuildTask(addon.name, addon.repoUrl, branch, addon.buildSubdir,
                     javaVersion, addon.useAddonsRepo, extraMvnArgs, addon.notifyUsers,
-                    ProjectType.ADDON, ignored, ignoreReason, addon.timeoutMinutes, addon.gitClean));
+                    ProjectType.ADDON, ignored, ignoreReason, addon.timeoutMinutes, addon.gitClean,
+                    addon.vaadinModulesOnly, addon.skipModules));
         }
         for (AppProject app : appsToTest) {
             // Apply version-specific overrides if any
@@ -362,268 +565,853 @@ public class EcosystemBuild implements Callable<Integer> {
 
             allTasks.add(new BuildTask(app.name, app.repoUrl, branch, app.buildSubdir,
                     javaVersion, app.useAddonsRepo, extraMvnArgs, app.notifyUsers,
-                    ProjectType.APP, ignored, ignoreReason, app.timeoutMinutes, app.gitClean));
+                    ProjectType.APP, ignored, ignoreReason, app.timeoutMinutes, app.gitClean,
+                    app.vaadinModulesOnly, app.skipModules));
         }
 
-        if (buildThreads == 1) {
-            // Sequential execution with live output
-            for (BuildTask task : allTasks) {
-                if (task.ignored) {
-                    results.add(new TestResult(task.name, task.type, false, "Ignored: " + task.ignoreReason, 0));
-                    continue;
+        // Start fetching sources in the background while the smoke test runs. Sync order
+        // follows build order, so the first projects to build are ready first.
+        boolean distributed = coordinatorPort != null || coordinatorAddress != null;
+        buildOrder = buildThreads > 1 || distributed ? orderLongestFirst(allTasks) : allTasks;
+        if (coordinatorAddress != null) {
+            // Any project may be handed to this worker; the coordinator hands them out longest-first too
+            startSourceSync(buildOrder, workPath);
+            return runWorker(allTasks, workPath);
+        }
+        if (coordinatorPort != null) {
+            // Workers sync and build the projects; they may connect while the smoke test runs
+            coordinator = new Coordinator(coordinatorPort, vaadinVersion, versionOutputPath, this::logTail, timeoutMinutes);
+            System.out.println("🛰️  Coordinating builds for workers on port " + coordinatorPort);
+        } else {
+            startSourceSync(buildOrder, workPath);
+        }
+        if (knownIssues == null) {  // Read already by an earlier version of the run
+            knownIssues = CompletableFuture.supplyAsync(() -> loadKnownIssues(workPath));
+        }
+
+        // Run smoke test first to validate Vaadin version and cache artifacts
+        System.out.println("🔥 Running smoke test to validate Vaadin " + vaadinVersion + "...");
+        System.out.println();
+        TestResult smokeTestResult = runSmokeTest(workPath);
+        completedResults.put(smokeTestResult.projectName(), smokeTestResult);
+        writeResultsJson(allTasks, runStartedAt, !smokeTestResult.success());
+        if (!smokeTestResult.success()) {
+            System.out.println();
+            System.out.printf("%s💥 Smoke test failed! Vaadin %s may not be available or compatible.%s%n",
+                    RED, vaadinVersion, RESET);
+            System.out.println("   Check " + smokeTestResult.logFile() + " for details.");
+            if (syncExecutor != null) syncExecutor.shutdownNow();
+            if (coordinator != null) coordinator.close();
+            // Still write report with failed smoke test
+            printFinalSummary(List.of(smokeTestResult), smokeTestResult.durationMs());
+            return 1;
+        }
+        System.out.println();
+        System.out.printf("%s✅ Smoke test passed - Vaadin %s artifacts cached (%.1fs)%s%n",
+                GREEN, vaadinVersion, smokeTestResult.durationMs() / 1000.0, RESET);
+        System.out.println();
+        resolvedVaadinVersion = resolveVaadinBuildVersion();
+        vaadinFingerprint = computeVaadinFingerprint();
+
+        results.add(smokeTestResult);  // Include smoke test in report
+        buildStartTime = System.currentTimeMillis();
+        return null;
+    }
+
+    /**
+     * Build the projects one after the other with live output. Failures are checked with their
+     * original Vaadin version after all builds, so checks never delay a build result.
+     */
+    private void buildSequentially() {
+        // Keep the live display within the terminal. Large project lists are shown in a viewport
+        // next to the build output instead of scrolling the display off the screen.
+        int terminalHeight = getTerminalHeight();
+        if (terminalHeight > 0) {
+            int liveOutputLines = TAIL_LINES + 8;  // Tail and the build's own messages
+            statusTableBudget = Math.max(4, terminalHeight - 5 - liveOutputLines - 1);
+        }
+
+        // Print initial header
+        printHeader(System.out);
+        printStatusTable(System.out);
+        System.out.println();
+
+        Map<BuildTask, TestResult> failedBuilds = new LinkedHashMap<>();
+        for (BuildTask task : allTasks) {
+            if (task.ignored) {
+                TestResult ignoredResult = new TestResult(task.name, task.type, false, "Ignored: " + task.ignoreReason, 0);
+                results.add(ignoredResult);
+                completedResults.put(task.name, ignoredResult);
+                continue;
+            }
+
+            statusMap.put(task.name, BuildStatus.BUILDING);
+            buildStartTimeMap.put(task.name, System.currentTimeMillis());
+            clearOutput();
+            printHeader(System.out);
+            printStatusTable(System.out);
+            System.out.println();
+
+            TestResult result = testProject(task, workPath, false);
+            results.add(result);
+
+            durationMap.put(task.name, result.durationMs());
+            BuildStatus finalStatus;
+            if (result.success()) {
+                finalStatus = BuildStatus.PASSED;
+            } else {
+                String issueUrl = findKnownIssue(task.name, vaadinVersion);
+                if (issueUrl != null) {
+                    finalStatus = BuildStatus.KNOWN_ISSUE;
+                    knownIssueUrls.put(task.name, issueUrl);
+                } else {
+                    finalStatus = BuildStatus.FAILED;
                 }
+                failedBuilds.put(task, result);  // Verified after all builds
+            }
+            statusMap.put(task.name, finalStatus);
+            completedResults.put(task.name, result);
+            writeResultsJson(allTasks, runStartedAt, false);
+            if (result.success()) {
+                storeInResultCache(task, result, null);
+            }
+
+            clearOutput();
+            printHeader(System.out);
+            printStatusTable(System.out);
 
-                statusMap.put(task.name, BuildStatus.BUILDING);
-                buildStartTimeMap.put(task.name, System.currentTimeMillis());
-                clearOutput();
-                printHeader();
-                printStatusTable();
+            if (finalStatus == BuildStatus.FAILED) {
+                System.out.println();
+                System.out.printf("  %s💥 %s failed. Log: %s%s%n", RED, task.name, result.logFile(), RESET);
+            } else if (finalStatus == BuildStatus.KNOWN_ISSUE) {
                 System.out.println();
+                System.out.printf("  %s⚠️  %s failed (known issue). Log: %s%s%n", YELLOW, task.name, result.logFile(), RESET);
+            }
+            System.out.println();
+        }
+
+        // For failures, verify if the project builds with its original Vaadin version
+        for (var failed : failedBuilds.entrySet()) {
+            BuildTask task = failed.getKey();
+            FailureMetadata metadata = verifyFailure(task, workPath, false);
+            failureMetadata.put(task.name, metadata);
+            writeResultsJson(allTasks, runStartedAt, false);
+            storeInResultCache(task, failed.getValue(), metadata);
+        }
+    }
 
-                TestResult result = testProject(task.name, task.repoUrl, task.branch, task.buildSubdir,
-                        task.javaVersion, task.useAddonsRepo, task.extraMvnArgs, task.type, workPath,
-                        false, task.timeoutMinutes, task.gitClean);
-                results.add(result);
+    /**
+     * Build a project of this run in a slot of the pool and queue the check of a failure.
+     * Runs on the pool's executor; when coordinating, the build runs on a worker slot and
+     * this only waits for it.
+     */
+    private TestResult buildInPool(BuildPool pool, BuildTask task) throws Exception {
+        // Hold the build back while the machine is under pressure
+        if (pool.admission != null) pool.admission.acquire();
+        try {
+            // Acquire a slot for this builder; a worker slot when coordinating
+            Integer slot = coordinator == null ? pool.availableSlots.poll() : null;
+            if (slot == null) slot = 0; // Fallback
+
+            // Mark as building when actually starting, on a worker if coordinating
+            int buildSlot = slot;
+            Path logFile = versionOutputPath.resolve(task.name + "-build.log");
+            BuildPool.BuilderSlot builderSlot = new BuildPool.BuilderSlot(pool.label(this, task.name), logFile, this);
+            Consumer<String> markBuilding = worker -> {
+                synchronized (pool.slotsLock) {
+                    statusMap.put(task.name, BuildStatus.BUILDING);
+                    buildStartTimeMap.put(task.name, System.currentTimeMillis());
+                    if (worker != null) {
+                        pool.workerSlots.values().removeIf(build -> build.logFile().equals(logFile));  // Handed out again
+                        pool.workerSlots.put(worker, builderSlot);
+                    } else {
+                        pool.builderSlots[buildSlot] = builderSlot;
+                    }
+                }
+            };
+
+            TestResult result;
+            FailureMetadata remoteMetadata = null;  // Workers verify failures themselves
+            if (coordinator != null) {
+                Coordinator.RemoteBuild build = coordinator.build(task, markBuilding);
+                result = build.result();
+                remoteMetadata = build.metadata();
+                if (build.commit() != null) commitShas.put(task.name, build.commit());
+                if (!build.mojoTimings().isEmpty()) mojoTimings.put(task.name, build.mojoTimings());
+                if (build.reactorSelection() != null) reactorSelections.put(task.name, build.reactorSelection());
+            } else {
+                markBuilding.accept(null);
+                result = testProject(task, workPath, true);
+            }
+            if (result.success()) {
+                storeInResultCache(task, result, null);
+            }
 
+            String issueUrl = result.success() ? null : findKnownIssue(task.name, vaadinVersion);
+            synchronized (pool.slotsLock) {
                 durationMap.put(task.name, result.durationMs());
                 BuildStatus finalStatus;
                 if (result.success()) {
                     finalStatus = BuildStatus.PASSED;
                 } else {
-                    String issueUrl = findOpenGitHubIssue(task.name, vaadinVersion);
                     if (issueUrl != null) {
                         finalStatus = BuildStatus.KNOWN_ISSUE;
                         knownIssueUrls.put(task.name, issueUrl);
                     } else {
                         finalStatus = BuildStatus.FAILED;
                     }
+                }
+                statusMap.put(task.name, finalStatus);
+                completedResults.put(task.name, result);
+                if (remoteMetadata != null) failureMetadata.put(task.name, remoteMetadata);
+                writeResultsJson(allTasks, runStartedAt, false);
+                if (coordinator != null) {
+                    pool.workerSlots.values().removeIf(build -> build.logFile().equals(logFile));
+                } else {
+                    pool.builderSlots[slot] = null;
+                }
+            }
+            buildEndTime.accumulateAndGet(System.currentTimeMillis(), Math::max);
 
-                    // For failures, verify if project builds with its original Vaadin version
-                    Path projectPath = workPath.resolve(task.name);
-                    Path buildPath = task.buildSubdir != null ? projectPath.resolve(task.buildSubdir) : projectPath;
-                    System.out.println();
-                    System.out.printf("  %s🔍 Verifying build with project's original Vaadin version...%s%n", DIM, RESET);
+            // Release the slot
+            if (coordinator == null) pool.availableSlots.add(slot);
+
+            // For failures, verify if the project builds with its original Vaadin version
+            if (!result.success() && coordinator == null) {
+                pool.check(this, task, result);
+            }
+            return result;
+        } finally {
+            if (pool.admission != null) pool.admission.release();
+        }
+    }
 
-                    String originalVersion = detectProjectVaadinVersion(buildPath, task.javaVersion);
-                    Path verifyLog = versionOutputPath.resolve(task.name + "-original-build.log");
-                    boolean buildsWithOriginal = verifyWithOriginalVersion(buildPath, task.javaVersion,
-                            task.useAddonsRepo, task.extraMvnArgs, verifyLog);
+    // Check a failed build of this run with the project's original Vaadin version, in a slot of the pool
+    private void checkInPool(BuildPool pool, BuildTask task, TestResult result) throws Exception {
+        if (pool.admission != null) pool.admission.acquire();
+        try {
+            Integer slot = pool.availableSlots.poll();
+            if (slot == null) slot = 0; // Fallback
+            synchronized (pool.slotsLock) {
+                pool.builderSlots[slot] = new BuildPool.BuilderSlot(pool.label(this, task.name) + " (original version)",
+                        versionOutputPath.resolve(task.name + "-original-build.log"), this);
+            }
 
-                    failureMetadata.put(task.name, new FailureMetadata(task.repoUrl, originalVersion, buildsWithOriginal, task.notifyUsers));
+            FailureMetadata metadata = verifyFailure(task, workPath, true);
+            storeInResultCache(task, result, metadata);
 
-                    if (originalVersion != null) {
-                        System.out.printf("  %s   Original version: %s, builds: %s%s%n", DIM, originalVersion,
-                                buildsWithOriginal ? "✅" : "❌", RESET);
-                    }
-                }
-                statusMap.put(task.name, finalStatus);
+            synchronized (pool.slotsLock) {
+                failureMetadata.put(task.name, metadata);
+                writeResultsJson(allTasks, runStartedAt, false);
+                pool.builderSlots[slot] = null;
+            }
+            buildEndTime.accumulateAndGet(System.currentTimeMillis(), Math::max);
+            pool.availableSlots.add(slot);
+        } finally {
+            if (pool.admission != null) pool.admission.release();
+        }
+    }
 
-                clearOutput();
-                printHeader();
-                printStatusTable();
+    // Final status of a run built in a pool, in full as it stays in the scrollback
+    private void printFinalStatus() {
+        statusTableBudget = 0;
+        printHeader(System.out);
+        printStatusTable(System.out);
 
-                if (finalStatus == BuildStatus.FAILED) {
+        // Show failures and known issues
+        for (TestResult result : results) {
+            if (!result.success() && !result.message().startsWith("Ignored:")) {
+                BuildStatus status = statusMap.get(result.projectName());
+                if (status == BuildStatus.KNOWN_ISSUE) {
                     System.out.println();
-                    System.out.printf("  %s💥 %s failed. Log: %s%s%n", RED, task.name, result.logFile(), RESET);
-                } else if (finalStatus == BuildStatus.KNOWN_ISSUE) {
+                    System.out.printf("  %s⚠️  %s failed (known issue). Log: %s%s%n", YELLOW, result.projectName(), result.logFile(), RESET);
+                } else {
                     System.out.println();
-                    System.out.printf("  %s⚠️  %s failed (known issue). Log: %s%s%n", YELLOW, task.name, result.logFile(), RESET);
+                    System.out.printf("  %s💥 %s failed. Log: %s%s%n", RED, result.projectName(), result.logFile(), RESET);
                 }
-                System.out.println();
             }
-        } else {
-            // Concurrent execution with fixed builder slots
-            ExecutorService executor = Executors.newFixedThreadPool(buildThreads);
-            List<Future<TestResult>> futures = new ArrayList<>();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Everything after the builds: merge the repository overlays, then report and record the run.
+     * @return The exit code of the run
+     */
+    private int finish() throws IOException {
+        if (layeredRepository != null) {
+            mergeRepositoryOverlays(allTasks);
+        }
+
+        // Detect flaky projects from build history
+        detectFlakyProjects();
+
+        // Print final summary; a pool shared with other versions may have finished later
+        long buildEndMillis = buildEndTime.get() > 0 ? buildEndTime.get() : System.currentTimeMillis();
+        long totalTimeMs = buildEndMillis - buildStartTime;
+        printFinalSummary(results, totalTimeMs);
+
+        // Write list of failed projects for CI integration
+        writeFailedProjectsList(results);
+        writeMojoTimings();
+        writeResultsJson(allTasks, runStartedAt, true);
+
+        // Record this run in the build history
+        recordHistory(allTasks, runStartedAt);
+
+        // Count failures (known issues don't count as failures)
+        boolean allPassed = statusMap.values().stream()
+                .noneMatch(s -> s == BuildStatus.FAILED);
+        return allPassed ? 0 : 1;
+    }
+
+    /**
+     * The builder slots of a concurrent run. One executor takes the builds of every Vaadin
+     * version of the run, highest expected duration first, so a slot that frees up takes the
+     * longest build still queued for any version. Checks of failures with the project's original
+     * Vaadin version queue behind all builds, so they only run in slots the builds leave idle.
+     * When coordinating, the workers' slots pull the builds, and each queued build only waits here.
+     */
+    private final class BuildPool {
+        // Queued work runs highest priority first, then in submission order
+        private record Queued(long priority, long sequence, Runnable work) implements Runnable, Comparable<Queued> {
+            @Override
+            public void run() {
+                work.run();
+            }
 
-            // Fixed slots for each builder thread - index is slot number
-            record BuilderSlot(String projectName, Path logFile) {}
-            BuilderSlot[] builderSlots = new BuilderSlot[buildThreads];
-            Object slotsLock = new Object();
+            @Override
+            public int compareTo(Queued other) {
+                return priority != other.priority
+                        ? Long.compare(other.priority, priority)
+                        : Long.compare(sequence, other.sequence);
+            }
+        }
 
-            // Track available slot numbers
-            Queue<Integer> availableSlots = new ConcurrentLinkedQueue<>();
+        private record BuilderSlot(String projectName, Path logFile, EcosystemBuild run) {}
+
+        private final boolean labelVersions;  // Slots show the version, as several share the pool
+        private final ExecutorService executor = coordinator != null
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : new ThreadPoolExecutor(buildThreads, buildThreads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+        private final AdmissionController admission = adaptive && coordinator == null
+                ? new AdmissionController(maxLoad != null ? maxLoad : Runtime.getRuntime().availableProcessors(),
+                        minFreeMemoryMb, maxJavaProcesses)
+                : null;
+
+        // Fixed slots for each builder thread - index is slot number
+        private final BuilderSlot[] builderSlots = new BuilderSlot[buildThreads];
+        private final Map<String, BuilderSlot> workerSlots = new HashMap<>();  // Worker slot -> its build, when coordinating
+        private final Object slotsLock = new Object();
+        private final Queue<Integer> availableSlots = new ConcurrentLinkedQueue<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private final List<EcosystemBuild> runs = new CopyOnWriteArrayList<>();
+        private final List<Future<?>> checks = new CopyOnWriteArrayList<>();  // Submitted by failed builds
+
+        BuildPool(boolean labelVersions) {
+            this.labelVersions = labelVersions;
             for (int i = 0; i < buildThreads; i++) {
                 availableSlots.add(i);
             }
+        }
 
-            // Handle ignored tasks first
-            for (BuildTask task : allTasks) {
+        /** Queue the builds of a prepared run, its longest expected build first. */
+        void submit(EcosystemBuild run) {
+            runs.add(run);
+            for (BuildTask task : run.allTasks) {
                 if (task.ignored) {
-                    results.add(new TestResult(task.name, task.type, false, "Ignored: " + task.ignoreReason, 0));
-                }
-            }
-
-            // Mark non-ignored tasks as WAITING
-            for (BuildTask task : allTasks) {
-                if (!task.ignored) {
-                    statusMap.put(task.name, BuildStatus.WAITING);
+                    TestResult ignoredResult = new TestResult(task.name, task.type, false, "Ignored: " + task.ignoreReason, 0);
+                    run.results.add(ignoredResult);
+                    run.completedResults.put(task.name, ignoredResult);
+                } else {
+                    run.statusMap.put(task.name, BuildStatus.WAITING);
                 }
             }
-
-            // Submit build tasks
-            final Path finalWorkPath = workPath;
-            for (BuildTask task : allTasks) {
+            Map<String, Long> expected = run.expectedDurations(run.allTasks);
+            for (BuildTask task : run.buildOrder) {
                 if (task.ignored) continue;
+                run.queuedBuilds.add(schedule(expected.get(task.name), () -> run.buildInPool(this, task)));
+            }
+        }
 
-                futures.add(executor.submit(() -> {
-                    // Acquire a slot for this builder
-                    Integer slot = availableSlots.poll();
-                    if (slot == null) slot = 0; // Fallback
-
-                    // Mark as building when actually starting
-                    synchronized (slotsLock) {
-                        statusMap.put(task.name, BuildStatus.BUILDING);
-                        buildStartTimeMap.put(task.name, System.currentTimeMillis());
-                        builderSlots[slot] = new BuilderSlot(task.name, finalWorkPath.resolve(task.name + "-build.log"));
-                    }
-
-                    TestResult result = testProject(task.name, task.repoUrl, task.branch, task.buildSubdir,
-                            task.javaVersion, task.useAddonsRepo, task.extraMvnArgs, task.type, finalWorkPath,
-                            true, task.timeoutMinutes, task.gitClean);
-
-                    // For failures, verify if project builds with its original Vaadin version
-                    FailureMetadata metadata = null;
-                    if (!result.success()) {
-                        Path projectPath = finalWorkPath.resolve(task.name);
-                        Path buildPath = task.buildSubdir != null ? projectPath.resolve(task.buildSubdir) : projectPath;
-                        String originalVersion = detectProjectVaadinVersion(buildPath, task.javaVersion);
-                        Path verifyLog = versionOutputPath.resolve(task.name + "-original-build.log");
-                        boolean buildsWithOriginal = verifyWithOriginalVersion(buildPath, task.javaVersion,
-                                task.useAddonsRepo, task.extraMvnArgs, verifyLog);
-                        metadata = new FailureMetadata(task.repoUrl, originalVersion, buildsWithOriginal, task.notifyUsers);
-                    }
+        void check(EcosystemBuild run, BuildTask task, TestResult result) {
+            checks.add(schedule(Long.MIN_VALUE, () -> {
+                run.checkInPool(this, task, result);
+                return null;
+            }));
+        }
 
-                    synchronized (slotsLock) {
-                        durationMap.put(task.name, result.durationMs());
-                        BuildStatus finalStatus;
-                        if (result.success()) {
-                            finalStatus = BuildStatus.PASSED;
-                        } else {
-                            String issueUrl = findOpenGitHubIssue(task.name, vaadinVersion);
-                            if (issueUrl != null) {
-                                finalStatus = BuildStatus.KNOWN_ISSUE;
-                                knownIssueUrls.put(task.name, issueUrl);
-                            } else {
-                                finalStatus = BuildStatus.FAILED;
-                            }
-                            if (metadata != null) {
-                                failureMetadata.put(task.name, metadata);
-                            }
-                        }
-                        statusMap.put(task.name, finalStatus);
-                        builderSlots[slot] = null;
-                    }
+        private <T> Future<T> schedule(long priority, Callable<T> work) {
+            FutureTask<T> future = new FutureTask<>(work);
+            executor.execute(new Queued(priority, sequence.getAndIncrement(), future));
+            return future;
+        }
 
-                    // Release the slot
-                    availableSlots.add(slot);
+        String label(EcosystemBuild run, String projectName) {
+            return labelVersions ? projectName + " (" + run.vaadinVersion + ")" : projectName;
+        }
 
-                    return result;
-                }));
+        /** Show the status of the runs and the builder slots until all builds and checks are done. */
+        void awaitAll() throws InterruptedException {
+            // Keep the live display within the terminal. Large project lists are shown in a viewport
+            // next to the build output instead of scrolling the display off the screen.
+            int terminalHeight = getTerminalHeight();
+            if (terminalHeight > 0) {
+                int liveOutputLines = coordinator != null
+                        ? terminalHeight / 2  // Worker slots, however many connect
+                        : 1 + buildThreads * (1 + MIN_BUILDER_TAIL_LINES);  // Separator, slot lines and tails
+                int tableLines = terminalHeight - (runs.size() == 1 ? 5 : 4 + 2 * runs.size()) - liveOutputLines - 1;
+                for (EcosystemBuild run : runs) {
+                    run.statusTableBudget = Math.max(4, tableLines / runs.size());
+                }
             }
 
+            // Print initial header
+            printStatus(System.out);
+
             // Calculate lines per builder based on terminal size if available
-            int terminalHeight = getTerminalHeight();
-            int headerAndStatusLines = countOutputLines() + 2; // +2 for empty line and separator
-            int availableLines = terminalHeight > 0
-                    ? Math.max(buildThreads * 4, terminalHeight - headerAndStatusLines - 2)
-                    : TAIL_LINES;
-            int linesPerBuilder = Math.max(3, availableLines / buildThreads);
-
-            // Update status display while waiting
-            while (!futures.stream().allMatch(Future::isDone)) {
-                clearOutput();
-                printHeader();
-                printStatusTable();
-                System.out.println();
+            int headerAndStatusLines = statusLines() + 1; // +1 for the separator
+            int linesPerBuilder = terminalHeight > 0
+                    ? Math.max(MIN_BUILDER_TAIL_LINES, (terminalHeight - headerAndStatusLines - 1) / buildThreads - 1)
+                    : Math.max(MIN_BUILDER_TAIL_LINES, TAIL_LINES / buildThreads);
+
+            // Redraw the status display at a fixed rate while waiting
+            try (Renderer renderer = new Renderer(System.out, FRAME_INTERVAL, out -> {
+                printStatus(out);
 
                 // Show output areas for all builder slots (fixed layout)
-                System.out.println("  " + CYAN + "─── Build Output " + "─".repeat(40) + RESET);
+                out.println("  " + CYAN + "─── Build Output " + "─".repeat(40) + RESET);
                 synchronized (slotsLock) {
+                    if (coordinator != null) {
+                        // One area per connected worker slot, sharing the space below the table
+                        List<String> slots = coordinator.workerSlots();
+                        int linesPerSlot = terminalHeight > 0
+                                ? Math.max(MIN_BUILDER_TAIL_LINES, (terminalHeight - headerAndStatusLines - 1) / Math.max(1, slots.size()) - 1)
+                                : MIN_BUILDER_TAIL_LINES;
+                        if (slots.isEmpty()) out.println("  " + DIM + "▷ (waiting for workers)" + RESET);
+                        for (String workerSlot : slots) {
+                            BuilderSlot slotInfo = workerSlots.get(workerSlot);
+                            if (slotInfo != null) {
+                                out.println("  " + YELLOW + "▶ [" + workerSlot + "] " + slotInfo.projectName() + RESET);
+                                slotInfo.run().printLogTail(out, slotInfo.logFile(), linesPerSlot);
+                            } else {
+                                out.println("  " + DIM + "▷ [" + workerSlot + "] (idle)" + RESET);
+                                for (int i = 0; i < linesPerSlot; i++) {
+                                    out.println();
+                                }
+                            }
+                        }
+                        return;
+                    }
                     for (int slot = 0; slot < buildThreads; slot++) {
                         String builderId = String.format("Builder %d", slot + 1);
                         BuilderSlot slotInfo = builderSlots[slot];
                         if (slotInfo != null) {
-                            System.out.println("  " + YELLOW + "▶ [" + builderId + "] " + slotInfo.projectName() + RESET);
-                            printLogTail(slotInfo.logFile(), linesPerBuilder);
+                            out.println("  " + YELLOW + "▶ [" + builderId + "] " + slotInfo.projectName() + RESET);
+                            slotInfo.run().printLogTail(out, slotInfo.logFile(), linesPerBuilder);
                         } else {
                             // Empty slot - always show with reserved space
-                            System.out.println("  " + DIM + "▷ [" + builderId + "] (idle)" + RESET);
+                            String pressure = admission != null ? admission.holdReason() : null;
+                            out.println("  " + DIM + "▷ [" + builderId + "] "
+                                    + (pressure != null ? "(held back: " + pressure + ")" : "(idle)") + RESET);
                             for (int i = 0; i < linesPerBuilder; i++) {
-                                System.out.println();
+                                out.println();
                             }
                         }
                     }
                 }
-
-                // Track total lines printed for clearing (fixed size now)
-                // Header + status table + 1 empty + separator + (buildThreads * (header + linesPerBuilder))
-                lastOutputLines = countOutputLines() + 1 + (buildThreads * (1 + linesPerBuilder));
-
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+            })) {
+                // Collect results
+                for (EcosystemBuild run : runs) {
+                    for (Future<TestResult> future : run.queuedBuilds) {
+                        try {
+                            run.results.add(future.get());
+                        } catch (ExecutionException e) {
+                            // Error already handled in the task
+                        }
+                    }
                 }
-            }
-
-            // Collect results
-            for (Future<TestResult> future : futures) {
-                try {
-                    results.add(future.get());
-                } catch (Exception e) {
-                    // Error already handled in the task
+                // Builds complete after submitting their checks, so all are known now
+                for (Future<?> future : checks) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        // Error already handled in the task
+                    }
                 }
+                renderer.clear();
             }
 
             executor.shutdown();
+            if (coordinator != null) coordinator.close();  // Idle workers are told the run is over
+        }
 
-            // Final status update
-            clearOutput();
-            printHeader();
-            printStatusTable();
-
-            // Show failures and known issues
-            for (TestResult result : results) {
-                if (!result.success() && !result.message().startsWith("Ignored:")) {
-                    BuildStatus status = statusMap.get(result.projectName());
-                    if (status == BuildStatus.KNOWN_ISSUE) {
-                        System.out.println();
-                        System.out.printf("  %s⚠️  %s failed (known issue). Log: %s%s%n", YELLOW, result.projectName(), result.logFile(), RESET);
-                    } else {
-                        System.out.println();
-                        System.out.printf("  %s💥 %s failed. Log: %s%s%n", RED, result.projectName(), result.logFile(), RESET);
-                    }
-                }
+        // The header and status table of a single run, or of every version in the pool
+        private void printStatus(PrintStream out) {
+            if (runs.size() == 1) {
+                runs.get(0).printHeader(out);
+                runs.get(0).printStatusTable(out);
+                out.println();
+                return;
+            }
+            out.println("=".repeat(60));
+            out.println("🏗️  Vaadin Ecosystem Build");
+            out.println("🎯 Testing against Vaadin versions: " + CYAN
+                    + String.join(", ", runs.stream().map(run -> run.vaadinVersion).toList()) + RESET);
+            out.println("=".repeat(60));
+            for (EcosystemBuild run : runs) {
+                out.println("  " + CYAN + "🧪 Vaadin " + run.vaadinVersion + RESET);
+                run.printStatusTable(out);
+                out.println();
             }
-            System.out.println();
         }
 
-        // Detect flaky projects from build archives
-        detectFlakyProjects(Path.of(workDir));
+        private int statusLines() {
+            if (runs.size() == 1) return runs.get(0).countOutputLines();
+            int lines = 4;  // Header
+            for (EcosystemBuild run : runs) {
+                lines += 2 + run.statusTableLines().size();  // Version line, table, empty line
+            }
+            return lines;
+        }
+    }
 
-        // Print final summary
-        long totalTimeMs = System.currentTimeMillis() - buildStartTime;
-        printFinalSummary(results, totalTimeMs);
+    /**
+     * Test several Vaadin versions in one run. Every version gets its own output directory,
+     * reports and failed-projects.txt as in a separate run, and the versions share what does
+     * not depend on the version: repository mirrors are fetched once, and the vaadin-bom
+     * metadata and open issues are read once. The builds of all versions go to one pool of -j
+     * builder slots, longest expected build first: a version starts building as soon as its
+     * smoke test passes, while the next version is prepared, and no slot idles while any
+     * version still has builds queued.
+     */
+    private int runVersionMatrix(List<String> requestedVersions) throws Exception {
+        if (coordinatorPort != null || coordinatorAddress != null) {
+            System.err.println("❌ Only one Vaadin version can be tested with --coordinator or --worker");
+            return 1;
+        }
+        Map<String, String> versions = new LinkedHashMap<>();  // Version -> as requested
+        for (String requested : requestedVersions) {
+            String version = switch (requested.trim()) {
+                case "latest" -> fetchLatestVaadinVersion();
+                case "pre-release" -> fetchLatestPreReleaseVersion();
+                default -> requested.trim();
+            };
+            if (version == null) {
+                System.out.println("ℹ️  No pre-release version found from a newer series, skipping pre-release");
+            } else if (!version.isEmpty()) {
+                versions.putIfAbsent(version, requested.trim());
+            }
+        }
+        System.out.println("📦 Testing Vaadin versions: " + String.join(", ", versions.keySet()));
+
+        BuildPool pool = new BuildPool(true);
+        Map<String, Integer> exitCodes = new LinkedHashMap<>();  // Version -> exit code, null while building
+        Map<String, EcosystemBuild> building = new LinkedHashMap<>();
+        for (Map.Entry<String, String> version : versions.entrySet()) {
+            printVersionBanner(version.getKey(), exitCodes.size() + 1, versions.size());
+            EcosystemBuild run = forVersion(version.getValue());
+            Integer exitCode = run.prepare();
+            exitCodes.put(version.getKey(), exitCode);
+            vaadinVersions = run.vaadinVersions;
+            knownIssues = run.knownIssues;
+            if (exitCode == null) {
+                pool.submit(run);  // Builds while the next version is prepared
+                building.put(version.getKey(), run);
+            }
+        }
 
-        // Write list of failed projects for CI integration
-        writeFailedProjectsList();
+        if (!building.isEmpty()) {
+            System.out.println();
+            pool.awaitAll();
+            int index = 0;
+            for (Map.Entry<String, EcosystemBuild> run : building.entrySet()) {
+                printVersionBanner(run.getKey(), ++index, building.size());
+                run.getValue().printFinalStatus();
+                exitCodes.put(run.getKey(), run.getValue().finish());
+            }
+        }
 
-        // Count failures (known issues don't count as failures)
-        boolean allPassed = statusMap.values().stream()
-                .noneMatch(s -> s == BuildStatus.FAILED);
-        return allPassed ? 0 : 1;
+        System.out.println();
+        System.out.println("=".repeat(60));
+        System.out.println("📊 VERSIONS");
+        System.out.println("=".repeat(60));
+        for (Map.Entry<String, Integer> entry : exitCodes.entrySet()) {
+            System.out.printf("  %s %-24s %s%n", entry.getValue() == 0 ? "✅" : "❌", entry.getKey(),
+                    Path.of(workDir).resolve(entry.getKey()).resolve("results.md"));
+        }
+        return exitCodes.values().stream().allMatch(code -> code == 0) ? 0 : 1;
     }
 
-    private void printHeader() {
+    private static void printVersionBanner(String version, int index, int count) {
+        System.out.println();
         System.out.println("=".repeat(60));
-        System.out.println("🏗️  Vaadin Ecosystem Build");
-        System.out.println("🎯 Testing against Vaadin version: " + CYAN + vaadinVersion + RESET);
+        System.out.printf("🧪 Vaadin %s (%d/%d)%n", version, index, count);
         System.out.println("=".repeat(60));
     }
 
-    private void printStatusTable() {
+    /**
+     * A run for one version, with the command line of this run parsed again, sharing what does
+     * not depend on the version. latest and pre-release are resolved by the run as without -v,
+     * so they get the same Maven settings as a run of their own.
+     */
+    private EcosystemBuild forVersion(String requested) {
+        EcosystemBuild run = new EcosystemBuild();
+        new CommandLine(run).parseArgs(spec.commandLine().getParseResult().originalArgs().toArray(String[]::new));
+        run.vaadinVersion = requested.equals("latest") || requested.equals("pre-release") ? null : requested;
+        run.preRelease = requested.equals("pre-release");
+        run.vaadinVersions = vaadinVersions;
+        run.knownIssues = knownIssues;
+        run.updatedMirrors = updatedMirrors;
+        run.mirrorLocks = mirrorLocks;
+        return run;
+    }
+
+    /**
+     * Worker mode: build the projects a coordinator hands out, on -j slots that each ask for the
+     * next project whenever they are free. Projects are looked up by name, so a worker must be
+     * started with the same projects options as the coordinator. Sync, build and the check with
+     * the original Vaadin version run here; logs and results are sent to the coordinator.
+     */
+    private int runWorker(List<BuildTask> tasks, Path workPath) throws InterruptedException {
+        Map<String, BuildTask> tasksByName = new HashMap<>();
+        tasks.forEach(task -> tasksByName.put(task.name(), task));
+
+        System.out.println("🔥 Running smoke test to validate Vaadin " + vaadinVersion + "...");
+        TestResult smokeTestResult = runSmokeTest(workPath);
+        if (!smokeTestResult.success()) {
+            System.err.println("❌ Smoke test failed, not taking builds. Check " + smokeTestResult.logFile() + " for details.");
+            return 1;
+        }
+        resolvedVaadinVersion = resolveVaadinBuildVersion();
+        vaadinFingerprint = computeVaadinFingerprint();
+
+        String workerName;
+        try {
+            workerName = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            workerName = "worker";
+        }
+        workerName += "-" + ProcessHandle.current().pid();
+        System.out.printf("🛰️  Worker %s building for %s on %d slots%n", workerName, coordinatorAddress, buildThreads);
+
+        ExecutorService slots = Executors.newFixedThreadPool(buildThreads);
+        List<Future<Integer>> slotResults = new ArrayList<>();
+        for (int slot = 1; slot <= buildThreads; slot++) {
+            String slotName = workerName + "#" + slot;
+            slotResults.add(slots.submit(() -> runWorkerSlot(tasksByName, workPath, slotName)));
+        }
+        int built = 0;
+        for (Future<Integer> slotResult : slotResults) {
+            try {
+                built += slotResult.get();
+            } catch (ExecutionException e) {
+                System.err.println("⚠️  Warning: Lost connection to coordinator: " + e.getCause().getMessage());
+            }
+        }
+        slots.shutdown();
+        System.out.println("🏁 Coordinator finished the run, built " + built + " projects");
+        return 0;
+    }
+
+    // One worker slot: a connection to the coordinator, and one build at a time
+    private int runWorkerSlot(Map<String, BuildTask> tasks, Path workPath, String slotName) throws IOException {
+        int built = 0;
+        try (Socket socket = Coordinator.connect(coordinatorAddress);
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            Coordinator.readLine(in);  // Version, known already
+            Coordinator.writeLine(out, "HELLO " + slotName);
+            while (true) {
+                Coordinator.writeLine(out, "NEXT");
+                String reply = Coordinator.readLine(in);
+                if (reply == null || reply.equals("DONE")) return built;
+                if (!reply.startsWith("TASK ")) throw new IOException("Unexpected message: " + reply);
+
+                BuildTask task = tasks.get(reply.substring("TASK ".length()));
+                Properties props = new Properties();
+                if (task == null) {
+                    props.setProperty("success", "false");
+                    props.setProperty("message", "Project not configured on worker " + slotName);
+                    props.setProperty("durationMs", "0");
+                } else {
+                    Path logFile = versionOutputPath.resolve(task.name() + "-build.log");
+                    Path verifyLog = versionOutputPath.resolve(task.name() + "-original-build.log");
+                    TestResult result;
+                    FailureMetadata metadata = null;
+                    // Sends the rest of the logs when closed, before the result
+                    LogForwarder forwarder = new LogForwarder(out, List.of(logFile, verifyLog));
+                    try {
+                        if (!sourceSyncs.containsKey(task.name())) {  // Ignored in this worker's configuration
+                            sourceSyncs.put(task.name(), CompletableFuture.completedFuture(syncSources(task, workPath)));
+                        }
+                        result = testProject(task, workPath, true);  // Waits for the project's sync, if still running
+                        if (result.success()) {
+                            storeInResultCache(task, result, null);
+                        } else {
+                            metadata = verifyFailure(task, workPath, true);
+                            storeInResultCache(task, result, metadata);
+                        }
+                    } finally {
+                        forwarder.close();
+                    }
+                    props.setProperty("success", String.valueOf(result.success()));
+                    props.setProperty("message", result.message());
+                    props.setProperty("durationMs", String.valueOf(result.durationMs()));
+                    if (result.failure() != null) {
+                        props.setProperty("failureCategory", result.failure().category().name());
+                        props.setProperty("failureExcerpt", String.join("\n", result.failure().excerpt()));
+                    }
+                    if (metadata != null) {
+                        if (metadata.originalVersion() != null) props.setProperty("originalVersion", metadata.originalVersion());
+                        props.setProperty("buildsWithOriginal", String.valueOf(metadata.buildsWithOriginal()));
+                    }
+                    String commit = commitShas.get(task.name());
+                    if (commit != null) props.setProperty("commit", commit);
+                    Reactor.Selection selection = reactorSelections.get(task.name());
+                    if (selection != null) {
+                        props.setProperty("reactorModules", String.join(",", selection.modules()));
+                        props.setProperty("skippedModules", String.join(",", selection.skipped()));
+                    }
+                    List<MojoTimer.Execution> executions = mojoTimings.getOrDefault(task.name(), List.of());
+                    props.setProperty("mojoTimings", executions.stream()
+                            .map(e -> e.module() + "\t" + e.mojo() + "\t" + e.executionId() + "\t" + e.startMs() + "\t" + e.durationMs())
+                            .collect(java.util.stream.Collectors.joining("\n")));
+                    System.out.printf("  %s %s (%s)%n", result.success() ? "✅" : "❌", task.name(), formatDuration(result.durationMs()));
+                }
+
+                ByteArrayOutputStream data = new ByteArrayOutputStream();
+                props.store(data, null);
+                synchronized (out) {
+                    Coordinator.writeLine(out, "RESULT " + data.size());
+                    data.writeTo(out);
+                    out.flush();
+                }
+                built++;
+            }
+        }
+    }
+
+    /**
+     * Read projects from a file instead of the built-in lists, e.g. to test a fork of the list or
+     * synthetic projects. One project per line: its type (addon or app), name and repository URL,
+     * followed by optional key=value settings: branch, buildSubdir, javaVersion, timeoutMinutes,
+     * useAddonsRepo, gitClean, vaadinModulesOnly, skipModules and extraMvnArgs (both
+     * comma-separated). Blank lines and lines starting with # are skipped.
+     */
+    static void readProjectsFile(Path file, List<AddonProject> addons, List<AppProject> apps) throws IOException {
+        Set<String> names = new HashSet<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split("\\s+");
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected addon|app <name> <repoUrl> [key=value...]");
+            }
+            if (!names.add(fields[1])) {
+                throw new IllegalArgumentException("line " + lineNumber + ": duplicate project " + fields[1]);
+            }
+            Map<String, String> settings = new HashMap<>();
+            for (int i = 3; i < fields.length; i++) {
+                int eq = fields[i].indexOf('=');
+                if (eq < 1) throw new IllegalArgumentException("line " + lineNumber + ": expected key=value, got " + fields[i]);
+                settings.put(fields[i].substring(0, eq), fields[i].substring(eq + 1));
+            }
+            try {
+                switch (fields[0]) {
+                    case "addon" -> {
+                        AddonProject addon = new AddonProject();
+                        addon.name = fields[1];
+                        addon.repoUrl = fields[2];
+                        addon.branch = settings.remove("branch");
+                        addon.buildSubdir = settings.remove("buildSubdir");
+                        addon.javaVersion = settings.remove("javaVersion");
+                        addon.timeoutMinutes = Integer.parseInt(settings.getOrDefault("timeoutMinutes", "0"));
+                        addon.useAddonsRepo = Boolean.parseBoolean(settings.remove("useAddonsRepo"));
+                        addon.gitClean = Boolean.parseBoolean(settings.remove("gitClean"));
+                        addon.vaadinModulesOnly = Boolean.parseBoolean(settings.remove("vaadinModulesOnly"));
+                        String addonSkipModules = settings.remove("skipModules");
+                        if (addonSkipModules != null) addon.skipModules = List.of(addonSkipModules.split(","));
+                        String extraMvnArgs = settings.remove("extraMvnArgs");
+                        if (extraMvnArgs != null) addon.extraMvnArgs = List.of(extraMvnArgs.split(","));
+                        addons.add(addon);
+                    }
+                    case "app" -> {
+                        AppProject app = new AppProject();
+                        app.name = fields[1];
+                        app.repoUrl = fields[2];
+                        app.branch = settings.remove("branch");
+                        app.buildSubdir = settings.remove("buildSubdir");
+                        app.javaVersion = settings.remove("javaVersion");
+                        app.timeoutMinutes = Integer.parseInt(settings.getOrDefault("timeoutMinutes", "0"));
+                        app.useAddonsRepo = Boolean.parseBoolean(settings.remove("useAddonsRepo"));
+                        app.gitClean = Boolean.parseBoolean(settings.remove("gitClean"));
+                        app.vaadinModulesOnly = Boolean.parseBoolean(settings.remove("vaadinModulesOnly"));
+                        String appSkipModules = settings.remove("skipModules");
+                        if (appSkipModules != null) app.skipModules = List.of(appSkipModules.split(","));
+                        String extraMvnArgs = settings.remove("extraMvnArgs");
+                        if (extraMvnArgs != null) app.extraMvnArgs = List.of(extraMvnArgs.split(","));
+                        apps.add(app);
+                    }
+                    default -> throw new IllegalArgumentException("line " + lineNumber + ": unknown project type " + fields[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": timeoutMinutes is not a number");
+            }
+            settings.remove("timeoutMinutes");
+            if (!settings.isEmpty()) {
+                throw new IllegalArgumentException("line " + lineNumber + ": unknown settings " + settings.keySet());
+            }
+        }
+    }
+
+    /**
+     * Order tasks for concurrent execution using the longest-processing-time-first rule.
+     * Expected durations come from the build history, preferring runs against the Vaadin
+     * version under test. Projects without history are assumed to be as slow as the slowest
+     * known project, so they start early instead of becoming the tail of the run.
+     * Ties keep declaration order.
+     */
+    private List<BuildTask> orderLongestFirst(List<BuildTask> tasks) {
+        Map<String, Long> expected = expectedDurations(tasks);
+        List<BuildTask> ordered = new ArrayList<>(tasks);
+        ordered.sort(Comparator.comparingLong((BuildTask t) -> expected.get(t.name())).reversed());
+        return ordered;
+    }
+
+    // Project -> expected build duration in ms, as used by orderLongestFirst
+    private Map<String, Long> expectedDurations(List<BuildTask> tasks) {
+        Map<String, Long> known = new HashMap<>();
+        for (BuildTask task : tasks) {
+            Long duration = history.expectedDuration(vaadinVersion, task.name());
+            if (duration != null) known.put(task.name(), duration);
+        }
+        long unknownEstimate = known.values().stream().mapToLong(Long::longValue).max().orElse(0);
+
+        Map<String, Long> expected = new HashMap<>();
+        for (BuildTask task : tasks) {
+            expected.put(task.name(), known.getOrDefault(task.name(), unknownEstimate));
+        }
+        return expected;
+    }
+
+    private void printHeader(PrintStream out) {
+        out.println("=".repeat(60));
+        out.println("🏗️  Vaadin Ecosystem Build");
+        out.println("🎯 Testing against Vaadin version: " + CYAN + vaadinVersion + RESET);
+        out.println("=".repeat(60));
+    }
+
+    private void printStatusTable(PrintStream out) {
+        for (String line : statusTableLines()) {
+            out.println(line);
+        }
+    }
+
+    private List<String> statusTableLines() {
+        List<String> lines = new ArrayList<>();
         // Group by project type
         var addons = statusMap.entrySet().stream()
                 .filter(e -> projectTypes.get(e.getKey()) == ProjectType.ADDON)
@@ -633,22 +1421,72 @@ public class EcosystemBuild implements Callable<Integer> {
                 .toList();
 
         if (!addons.isEmpty()) {
-            System.out.println("  " + CYAN + "📦 Add-ons" + RESET);
+            lines.add("  " + CYAN + "📦 Add-ons" + RESET);
             for (var entry : addons) {
-                printStatusLine(entry.getKey(), entry.getValue());
+                lines.add(statusLine(entry.getKey(), entry.getValue()));
             }
         }
 
         if (!apps.isEmpty()) {
-            if (!addons.isEmpty()) System.out.println();
-            System.out.println("  " + CYAN + "🚀 Applications" + RESET);
+            if (!addons.isEmpty()) lines.add("");
+            lines.add("  " + CYAN + "🚀 Applications" + RESET);
             for (var entry : apps) {
-                printStatusLine(entry.getKey(), entry.getValue());
+                lines.add(statusLine(entry.getKey(), entry.getValue()));
             }
         }
+
+        if (statusTableBudget > 0 && lines.size() > statusTableBudget) {
+            return statusViewportLines(statusTableBudget);
+        }
+        return lines;
+    }
+
+    /**
+     * The status table for more projects than fit the screen: counters for every status, then as
+     * many projects as fit, running builds first, then failures, then the queue. Passed and ignored
+     * projects are only counted. Always exactly the given number of lines, so the build output
+     * below stays in place.
+     */
+    private List<String> statusViewportLines(int height) {
+        Map<BuildStatus, Integer> counts = new EnumMap<>(BuildStatus.class);
+        for (BuildStatus status : statusMap.values()) {
+            counts.merge(status, 1, Integer::sum);
+        }
+        int queued = counts.getOrDefault(BuildStatus.PENDING, 0) + counts.getOrDefault(BuildStatus.WAITING, 0);
+        List<String> lines = new ArrayList<>();
+        String counters = "  " + GREEN + "✅ " + counts.getOrDefault(BuildStatus.PASSED, 0) + " passed" + RESET
+                + "  " + RED + "❌ " + counts.getOrDefault(BuildStatus.FAILED, 0) + " failed" + RESET;
+        if (counts.containsKey(BuildStatus.KNOWN_ISSUE)) {
+            counters += "  " + YELLOW + "⚠️  " + counts.get(BuildStatus.KNOWN_ISSUE) + " known" + RESET;
+        }
+        counters += "  " + YELLOW + "🔨 " + counts.getOrDefault(BuildStatus.BUILDING, 0) + " building" + RESET
+                + "  " + CYAN + "⏳ " + queued + " waiting" + RESET;
+        if (counts.containsKey(BuildStatus.IGNORED)) {
+            counters += "  " + DIM + "⏭️  " + counts.get(BuildStatus.IGNORED) + " ignored" + RESET;
+        }
+        lines.add(counters);
+
+        List<BuildStatus> shownStatuses = List.of(BuildStatus.BUILDING, BuildStatus.FAILED, BuildStatus.KNOWN_ISSUE,
+                BuildStatus.WAITING, BuildStatus.PENDING);
+        List<Map.Entry<String, BuildStatus>> shown = statusMap.entrySet().stream()
+                .filter(e -> shownStatuses.contains(e.getValue()))
+                .sorted(Comparator.comparingInt(e -> shownStatuses.indexOf(e.getValue())))
+                .toList();
+        int room = height - 1;
+        int listed = shown.size() > room ? room - 1 : shown.size();
+        for (int i = 0; i < listed; i++) {
+            lines.add(statusLine(shown.get(i).getKey(), shown.get(i).getValue()));
+        }
+        if (listed < shown.size()) {
+            lines.add("    " + DIM + "… and " + (shown.size() - listed) + " more" + RESET);
+        }
+        while (lines.size() < height) {
+            lines.add("");
+        }
+        return lines;
     }
 
-    private void printStatusLine(String name, BuildStatus status) {
+    private String statusLine(String name, BuildStatus status) {
         Long duration = durationMap.get(name);
         String durationStr = duration != null ? String.format(" (%.1fs)", duration / 1000.0) : "";
 
@@ -659,6 +1497,10 @@ public class EcosystemBuild implements Callable<Integer> {
             buildingTime = String.format(" (%ds)", elapsedSec);
         }
 
+        if (cacheHits.containsKey(name)) {
+            durationStr += DIM + " ♻️ cached" + RESET;
+        }
+
         String statusStr = switch (status) {
             case PENDING -> DIM + "⏳ PENDING" + RESET;
             case WAITING -> CYAN + "⏳ WAITING..." + RESET;
@@ -669,31 +1511,34 @@ public class EcosystemBuild implements Callable<Integer> {
             case IGNORED -> DIM + "⏭️  IGNORED" + RESET;
         };
 
-        System.out.printf("    %-28s %s%n", name, statusStr);
+        return String.format("    %-28s %s", name, statusStr);
     }
 
-    private void printLogTail(Path logFile, int lines) {
-        try {
-            if (!Files.exists(logFile)) {
-                System.out.println("    " + DIM + "(waiting for output...)" + RESET);
-                return;
-            }
-            List<String> allLines = Files.readAllLines(logFile);
-            int start = Math.max(0, allLines.size() - lines);
-            for (int i = start; i < allLines.size(); i++) {
-                String line = allLines.get(i);
-                if (line.length() > 100) {
-                    line = line.substring(0, 97) + "...";
-                }
-                System.out.println("    " + DIM + line + RESET);
+    void printLogTail(PrintStream out, Path logFile, int lines) {
+        LogTail tail = logTails.get(logFile.toAbsolutePath().normalize());
+        if (tail == null) {
+            out.println("    " + DIM + "(waiting for output...)" + RESET);
+            for (int i = 1; i < lines; i++) {
+                out.println();
             }
-            // Pad with empty lines if not enough output yet
-            for (int i = allLines.size(); i < lines; i++) {
-                System.out.println();
+            return;
+        }
+        List<String> tailLines = tail.last(lines);
+        for (String line : tailLines) {
+            if (line.length() > 100) {
+                line = line.substring(0, 97) + "...";
             }
-        } catch (IOException e) {
-            System.out.println("    " + DIM + "(reading log...)" + RESET);
+            out.println("    " + DIM + line + RESET);
         }
+        // Pad with empty lines if not enough output yet
+        for (int i = tailLines.size(); i < lines; i++) {
+            out.println();
+        }
+    }
+
+    // The live tail of a log file, created when output is first captured into it
+    LogTail logTail(Path logFile) {
+        return logTails.computeIfAbsent(logFile.toAbsolutePath().normalize(), f -> new LogTail(LOG_TAIL_CAPACITY));
     }
 
     private int getTerminalHeight() {
@@ -728,21 +1573,9 @@ public class EcosystemBuild implements Callable<Integer> {
         lastOutputLines = 0;
     }
 
-    private void clearTailLines(int lines) {
-        for (int i = 0; i < lines; i++) {
-            System.out.print(MOVE_UP + CLEAR_LINE);
-        }
-    }
-
     private int countOutputLines() {
-        // Header (4 lines) + group headers + status table + spacing + 1 empty line
-        int lines = 5 + statusMap.size();
-        boolean hasAddons = projectTypes.values().stream().anyMatch(t -> t == ProjectType.ADDON);
-        boolean hasApps = projectTypes.values().stream().anyMatch(t -> t == ProjectType.APP);
-        if (hasAddons) lines++; // Add-ons header
-        if (hasApps) lines++; // Apps header
-        if (hasAddons && hasApps) lines++; // Spacing between groups
-        return lines;
+        // Header (4 lines) + status table + 1 empty line
+        return 5 + statusTableLines().size();
     }
 
     private TestResult runSmokeTest(Path workPath) {
@@ -771,7 +1604,7 @@ public class EcosystemBuild implements Callable<Integer> {
             );
 
             List<String> mvnCmd = new ArrayList<>();
-            mvnCmd.add("mvn");
+            mvnCmd.add(mavenLauncher.executable());
             mvnCmd.addAll(archetypeArgs);
             mvnCmd.addAll(getCommonMvnArgs());
             System.out.println("  " + DIM + "$ " + String.join(" ", mvnCmd) + RESET);
@@ -784,13 +1617,7 @@ public class EcosystemBuild implements Callable<Integer> {
 
             // Set Vaadin version (in case archetype version differs from target version)
             System.out.println("  " + DIM + "🔧 Setting Vaadin version to " + vaadinVersion + "..." + RESET);
-            List<String> setPropertyArgs = new ArrayList<>();
-            setPropertyArgs.add("versions:set-property");
-            setPropertyArgs.add("-Dproperty=vaadin.version");
-            setPropertyArgs.add("-DnewVersion=" + vaadinVersion);
-            setPropertyArgs.add("-DgenerateBackupPoms=false");
-            setPropertyArgs.addAll(getCommonMvnArgs());
-            runMavenSilent(smokeTestPath, logFile, null, setPropertyArgs);
+            setVaadinVersion(smokeTestPath, smokeTestPath, logFile);
 
             // Run verify to download all dependencies and compile
             System.out.println("  " + DIM + "🔨 Building smoke test project..." + RESET);
@@ -802,7 +1629,7 @@ public class EcosystemBuild implements Callable<Integer> {
             verifyArgs.addAll(getCommonMvnArgs());
 
             List<String> verifyCmdDisplay = new ArrayList<>();
-            verifyCmdDisplay.add("mvn");
+            verifyCmdDisplay.add(mavenLauncher.executable());
             verifyCmdDisplay.addAll(verifyArgs);
             System.out.println("  " + DIM + "$ " + String.join(" ", verifyCmdDisplay) + RESET);
 
@@ -820,109 +1647,277 @@ public class EcosystemBuild implements Callable<Integer> {
         }
     }
 
-    private TestResult testProject(String name, String repoUrl, String branch, String buildSubdir,
-                                    String javaVersion, boolean useAddonsRepo, List<String> extraMvnArgs,
-                                    ProjectType type, Path workPath, boolean silent, int projectTimeoutMinutes,
-                                    boolean gitClean) {
-        int effectiveTimeout = projectTimeoutMinutes > 0 ? projectTimeoutMinutes : timeoutMinutes;
+    /**
+     * Start the source-sync stage: clone or update every non-ignored project in the background,
+     * with its own bounded concurrency, so network I/O does not occupy build slots.
+     * Builds wait for their project's sync via {@link #awaitSourceSync(String)}.
+     */
+    private void startSourceSync(List<BuildTask> tasks, Path workPath) {
+        syncExecutor = Executors.newFixedThreadPool(Math.max(1, syncThreads));
+        for (BuildTask task : tasks) {
+            if (task.ignored()) continue;
+            sourceSyncs.put(task.name(), syncExecutor.submit(() -> syncSources(task, workPath)));
+        }
+        syncExecutor.shutdown();  // No more work; already submitted syncs still run
+    }
+
+    private SyncResult awaitSourceSync(String name) throws InterruptedException {
+        Future<SyncResult> sync = sourceSyncs.get(name);
+        try {
+            return sync.get();
+        } catch (ExecutionException e) {
+            return new SyncResult(false, "Error: " + e.getCause().getMessage(), 0);
+        }
+    }
+
+    /**
+     * Bring a project's working tree to the head of its branch. Only the update of the
+     * project's local mirror touches the network; every Vaadin version has its own worktree of
+     * the mirror, so switching versions keeps each version's build output, and re-checkouts
+     * and branch switches are local operations. Git output goes to the project's build log.
+     */
+    private SyncResult syncSources(BuildTask task, Path workPath) {
         long startTime = System.currentTimeMillis();
-        Path projectPath = workPath.resolve(name);
+        String name = task.name();
+        Path projectPath = checkoutPath(workPath, name);
+        Path mirrorPath = workPath.resolve(MIRRORS_DIR).resolve(name + ".git").toAbsolutePath();
         Path logFile = versionOutputPath.resolve(name + "-build.log");
 
         try {
-            // Clone or update repository
-            if (!Files.exists(projectPath)) {
-                if (!silent) System.out.println("  " + DIM + "📥 Cloning " + repoUrl + "..." + RESET);
-                List<String> cloneCmd = new ArrayList<>(List.of("git", "clone", "--depth", "1", "--single-branch"));
-                if (branch != null) {
-                    cloneCmd.add("-b");
-                    cloneCmd.add(branch);
-                }
-                cloneCmd.add(repoUrl);
-                cloneCmd.add(name);
-                int cloneResult = runCommandSilent(workPath, logFile, cloneCmd.toArray(new String[0]));
-                if (cloneResult != 0) {
-                    return new TestResult(name, type, false, "Failed to clone repository", elapsed(startTime), logFile);
+            // Versions of a run share the mirror, so one at a time updates it and adds its worktree
+            synchronized (mirrorLocks.computeIfAbsent(mirrorPath, path -> new Object())) {
+                if (!updateMirror(task.repoUrl(), mirrorPath, logFile)) {
+                    return new SyncResult(false, "Failed to clone repository", elapsed(startTime));
                 }
-            } else {
-                if (!silent) System.out.println("  " + DIM + "🔄 Updating repository..." + RESET);
-                // Discard any local changes (e.g., from versions plugin)
-                runCommandSilent(projectPath, logFile, "git", "checkout", "--", ".");
-                // Fetch the specific branch or default
-                String targetBranch = branch != null ? branch : getDefaultBranch(projectPath, logFile);
-                int fetchResult = runCommandSilent(projectPath, logFile, "git", "fetch", "--depth", "1", "origin", targetBranch);
-                int checkoutResult = runCommandSilent(projectPath, logFile, "git", "checkout", targetBranch);
-
-                // If branch doesn't exist locally (e.g., config changed), re-clone
-                if (fetchResult != 0 || checkoutResult != 0) {
-                    if (!silent) System.out.println("  " + DIM + "🔄 Branch mismatch, re-cloning..." + RESET);
+                String targetBranch = task.branch() != null ? task.branch() : getDefaultBranch(mirrorPath);
+
+                // Reuse the version's worktree; force-checkout discards local changes (e.g., from the
+                // Vaadin version update). Worktrees are detached, so mirror updates never touch them.
+                boolean updated = Files.exists(projectPath) && isWorktreeOf(projectPath, mirrorPath)
+                        && runCommandSilent(projectPath, logFile, "git", "checkout", "-f", "--detach", targetBranch) == 0;
+
+                // Otherwise (new project or version, branch missing) add the worktree again. It shares
+                // the mirror's objects, so this copies no history.
+                if (!updated) {
                     deleteDirectory(projectPath);
-                    List<String> cloneCmd = new ArrayList<>(List.of("git", "clone", "--depth", "1", "--single-branch"));
-                    if (branch != null) {
-                        cloneCmd.add("-b");
-                        cloneCmd.add(branch);
+                    runCommandSilent(mirrorPath, logFile, "git", "worktree", "prune");
+                    Files.createDirectories(projectPath.getParent());
+                    int addResult = runCommandSilent(mirrorPath, logFile, "git", "worktree", "add", "--detach",
+                            projectPath.toString(), targetBranch);
+                    if (addResult != 0) {
+                        return new SyncResult(false, "Failed to check out branch " + targetBranch, elapsed(startTime));
                     }
-                    cloneCmd.add(repoUrl);
-                    cloneCmd.add(name);
-                    int cloneResult = runCommandSilent(workPath, logFile, cloneCmd.toArray(new String[0]));
-                    if (cloneResult != 0) {
-                        return new TestResult(name, type, false, "Failed to clone repository", elapsed(startTime), logFile);
+                    // Checkout shared by all versions, from before per-version worktrees
+                    Path legacyCheckout = workPath.resolve(name);
+                    if (Files.exists(legacyCheckout) && mirrorPath.toString().equals(getOriginUrl(legacyCheckout))) {
+                        deleteDirectory(legacyCheckout);
                     }
-                } else {
-                    runCommandSilent(projectPath, logFile, "git", "reset", "--hard", "origin/" + targetBranch);
                 }
+                // Only now: the legacy checkout borrowed objects from the mirror without git knowing
+                collectMirrorGarbage(mirrorPath, logFile);
             }
 
-            // Remove all untracked files if configured (ensures clean state across version changes)
-            if (gitClean) {
+            String commit = getHeadCommit(projectPath);
+            if (commit != null) commitShas.put(name, commit);
+
+            // Remove all untracked files if configured (ensures a clean state for every build),
+            // unless an incremental build reuses them
+            if (task.gitClean() && !buildsIncrementally(task, workPath)) {
                 runCommandSilent(projectPath, logFile, "git", "clean", "-fdx");
             }
+            return new SyncResult(true, "Sources ready", elapsed(startTime));
+        } catch (Exception e) {
+            return new SyncResult(false, "Error: " + e.getMessage(), elapsed(startTime));
+        }
+    }
+
+    /**
+     * Create or incrementally update the bare mirror of a project repository. Only branches (and
+     * the tags on them) are fetched, so pull request refs do not pile up in the mirror.
+     * If the update fails (e.g., network issues), the existing mirror content is used.
+     * @return false if there is no usable mirror
+     */
+    private boolean updateMirror(String repoUrl, Path mirrorPath, Path logFile) throws IOException, InterruptedException {
+        if (!Files.exists(mirrorPath.resolve("HEAD"))) {
+            deleteDirectory(mirrorPath);
+            Files.createDirectories(mirrorPath.getParent());
+            int cloneResult = runCommandSilent(mirrorPath.getParent(), logFile, "git", "clone", "--bare", repoUrl, mirrorPath.toString());
+            if (cloneResult != 0) return false;
+            runCommandSilent(mirrorPath, logFile, "git", "config", "remote.origin.fetch", MIRROR_REFSPEC);
+            // Garbage collection runs in collectMirrorGarbage, not in the middle of a fetch
+            runCommandSilent(mirrorPath, logFile, "git", "config", "gc.auto", "0");
+            Files.createFile(mirrorPath.resolve("ecosystem-build-gc"));
+            updatedMirrors.add(mirrorPath);
+            return true;
+        }
+
+        if (!updatedMirrors.add(mirrorPath)) {
+            appendToLog(logFile, "[ecosystem-build] Mirror of " + repoUrl + " already updated in this run");
+            return true;
+        }
+        // Mirrors cloned with --mirror by earlier versions fetch every ref, including refs/pull/*
+        if ("true".equals(readCommandOutput(mirrorPath, "git", "config", "--get", "remote.origin.mirror"))) {
+            runCommandSilent(mirrorPath, logFile, "git", "config", "--unset", "remote.origin.mirror");
+            runCommandSilent(mirrorPath, logFile, "git", "config", "--replace-all", "remote.origin.fetch", MIRROR_REFSPEC);
+            deleteNonBranchRefs(mirrorPath, logFile);
+        }
+        runCommandSilent(mirrorPath, logFile, "git", "remote", "set-url", "origin", repoUrl);
+        if (runCommandSilent(mirrorPath, logFile, "git", "fetch", "--prune", "origin") != 0) {
+            appendToLog(logFile, "[ecosystem-build] Could not update mirror of " + repoUrl + ", using cached sources");
+        }
+        return true;
+    }
+
+    // Delete all refs but branches and tags in one transaction; there may be thousands of them
+    private void deleteNonBranchRefs(Path mirrorPath, Path logFile) throws IOException, InterruptedException {
+        String refs = readCommandOutput(mirrorPath, "git", "for-each-ref", "--format=%(refname)");
+        if (refs == null) return;
+        List<String> deletes = refs.lines()
+                .filter(ref -> !ref.startsWith("refs/heads/") && !ref.startsWith("refs/tags/"))
+                .map(ref -> "delete " + ref)
+                .toList();
+        if (deletes.isEmpty()) return;
+        appendToLog(logFile, "[ecosystem-build] Deleting " + deletes.size() + " refs other than branches and tags from the mirror");
+        Path commands = Files.createTempFile(mirrorPath, "delete-refs", ".txt");
+        try {
+            Files.write(commands, deletes);
+            ProcessBuilder pb = new ProcessBuilder("git", "update-ref", "--stdin");
+            pb.directory(mirrorPath.toFile());
+            pb.redirectErrorStream(true);
+            pb.redirectInput(commands.toFile());
+            readOutputWithTimeout(pb.start(), logFile, timeoutMinutes, null);
+        } finally {
+            Files.deleteIfExists(commands);
+        }
+    }
+
+    /**
+     * Repack a mirror and drop the objects nothing refers to any more, e.g. of deleted branches,
+     * once per MIRROR_GC_INTERVAL. Git keeps everything the worktrees of all versions use (their
+     * HEADs, indexes and reflogs) and, by default, unreachable objects younger than two weeks,
+     * which protects a concurrent run.
+     */
+    private void collectMirrorGarbage(Path mirrorPath, Path logFile) throws IOException, InterruptedException {
+        Path stamp = mirrorPath.resolve("ecosystem-build-gc");
+        if (Files.exists(stamp)) {
+            Instant lastRun = Files.getLastModifiedTime(stamp).toInstant();
+            if (lastRun.isAfter(Instant.now().minus(MIRROR_GC_INTERVAL))) return;
+            Files.setLastModifiedTime(stamp, FileTime.from(Instant.now()));
+        } else {
+            Files.createFile(stamp);
+        }
+        appendToLog(logFile, "[ecosystem-build] Collecting garbage in the mirror");
+        runCommandSilent(mirrorPath, logFile, "git", "gc", "--quiet");
+    }
+
+    private TestResult testProject(BuildTask task, Path workPath, boolean silent) {
+        String name = task.name();
+        ProjectType type = task.type();
+        String buildSubdir = task.buildSubdir();
+        String javaVersion = task.javaVersion();
+        int effectiveTimeout = task.timeoutMinutes() > 0 ? task.timeoutMinutes() : timeoutMinutes;
+        Path projectPath = checkoutPath(workPath, name);
+        Path logFile = versionOutputPath.resolve(name + "-build.log");
+
+        try {
+            // Sources are synced by the source-sync stage; only wait here if it is not done yet
+            if (!silent && !sourceSyncs.get(name).isDone()) {
+                System.out.println("  " + DIM + "📥 Waiting for sources of " + task.repoUrl() + "..." + RESET);
+            }
+            SyncResult sync = awaitSourceSync(name);
+            if (!sync.success()) {
+                return new TestResult(name, type, false, sync.message(), sync.durationMs(), logFile);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TestResult(name, type, false, "Interrupted", 0, logFile);
+        }
 
+        // Build time starts once the sources are ready, network time is not included
+        long startTime = System.currentTimeMillis();
+        try {
             // Build with specified Vaadin version
             Path buildPath = buildSubdir != null ? projectPath.resolve(buildSubdir) : projectPath;
 
-            // Update Vaadin version in pom.xml using versions plugin
-            List<String> setPropertyArgs = new ArrayList<>();
-            setPropertyArgs.add("versions:set-property");
-            setPropertyArgs.add("-Dproperty=vaadin.version");
-            setPropertyArgs.add("-DnewVersion=" + vaadinVersion);
-            setPropertyArgs.add("-DgenerateBackupPoms=false");
-            setPropertyArgs.addAll(getCommonMvnArgs());
-            if (!silent) System.out.println("  " + DIM + "$ mvn " + String.join(" ", setPropertyArgs) + RESET);
-            runMavenSilent(buildPath, logFile, javaVersion, setPropertyArgs);
-
-            // Also try versions:set for direct vaadin-bom references
-            List<String> setVersionArgs = new ArrayList<>();
-            setVersionArgs.add("versions:set");
-            setVersionArgs.add("-DnewVersion=" + vaadinVersion);
-            setVersionArgs.add("-DartifactId=vaadin-bom");
-            setVersionArgs.add("-DgenerateBackupPoms=false");
-            setVersionArgs.addAll(getCommonMvnArgs());
-            if (!silent) System.out.println("  " + DIM + "$ mvn " + String.join(" ", setVersionArgs) + RESET);
-            runMavenSilent(buildPath, logFile, javaVersion, setVersionArgs);
+            // Update vaadin.version property and vaadin-bom references in the POMs
+            if (!silent) System.out.println("  " + DIM + "🔧 Setting Vaadin version to " + vaadinVersion + "..." + RESET);
+            VaadinPom.Rewrite rewrite = setVaadinVersion(buildPath, projectPath, logFile);
+            if (rewrite.originalVersion() != null) {
+                originalVaadinVersions.put(name, rewrite.originalVersion());
+            }
+
+            // Build only part of a multi-module reactor if configured
+            Reactor.Selection selection = task.vaadinModulesOnly() || !task.skipModules().isEmpty()
+                    ? Reactor.select(buildPath, task.vaadinModulesOnly(), task.skipModules())
+                    : null;
+            if (selection != null) {
+                reactorSelections.put(name, selection);
+                appendToLog(logFile, "[ecosystem-build] Building modules " + String.join(", ", selection.modules())
+                        + " and the modules they need, skipping " + String.join(", ", selection.skipped()));
+                if (!silent) System.out.println("  " + DIM + "🧩 Skipping modules: " + String.join(", ", selection.skipped()) + RESET);
+            } else {
+                reactorSelections.remove(name);
+            }
 
             // Run the actual build
             List<String> mvnArgs = new ArrayList<>();
             mvnArgs.add("clean");
             mvnArgs.add("verify");
             mvnArgs.addAll(getCommonMvnArgs());
-            if (useAddonsRepo) {
+            if (task.useAddonsRepo()) {
                 mvnArgs.add("-Pvaadin-addons"); // Enable Vaadin Directory repository
             }
-            mvnArgs.addAll(extraMvnArgs);
-            if (!silent) System.out.println("  " + DIM + "$ mvn " + String.join(" ", mvnArgs) + RESET);
+            mvnArgs.addAll(task.extraMvnArgs());
+            if (selection != null) {
+                mvnArgs.addAll(selection.mavenArgs());
+            }
+
+            // Reuse the previous result if none of the build inputs changed
+            String cacheKey = resultCacheKey(task, mvnArgs);
+            if (cacheKey != null && !noCache) {
+                ResultCache.Entry cached = resultCache.lookup(cacheKey);
+                if (cached != null) {
+                    if (!silent) System.out.println("  " + DIM + "♻️  Inputs unchanged, reusing cached result" + RESET);
+                    appendToLog(logFile, "[ecosystem-build] Inputs unchanged since " + cached.builtAt() + ", reusing cached result and log:");
+                    resultCache.appendLog(cacheKey, logFile);
+                    cacheHits.put(name, cached);
+                    return new TestResult(name, type, cached.success(), cached.message(), cached.durationMs(), logFile, cached.failure());
+                }
+            }
+
+            // Same sources and options as the last passing build, so only upstream snapshots changed
+            // and the build output of that build can be reused (not part of the cache key)
+            if (buildsIncrementally(task, workPath)) {
+                mvnArgs.remove("clean");
+                appendToLog(logFile, "[ecosystem-build] Commit and options unchanged since the last passing build of this version, building without clean");
+            }
+            Files.deleteIfExists(builtMarker(workPath, name));  // Written again once the build passes
+
+            if (!silent) System.out.println("  " + DIM + "$ " + mavenLauncher.executable() + " " + String.join(" ", mvnArgs) + RESET);
+            if (layeredRepository != null) {
+                mvnArgs.addAll(layeredRepository.mavenArgs(name));  // Not part of the cache key
+            }
 
-            // Use silent build for concurrent execution (output goes to log file, displayed via printLogTail)
+            // Use silent build for concurrent execution (output goes to log file and its live tail, displayed via printLogTail)
+            FailureClassifier classifier = new FailureClassifier();
+            MojoTimer mojoTimer = new MojoTimer();
             int buildResult = silent
-                    ? runMavenSilent(buildPath, logFile, javaVersion, mvnArgs, effectiveTimeout)
-                    : runMavenWithTail(buildPath, logFile, javaVersion, mvnArgs, effectiveTimeout);
+                    ? runMavenSilent(buildPath, logFile, javaVersion, mvnArgs, effectiveTimeout, classifier.andThen(mojoTimer))
+                    : runMavenWithTail(buildPath, logFile, javaVersion, mvnArgs, effectiveTimeout, classifier.andThen(mojoTimer));
+            mojoTimings.put(name, mojoTimer.finish());
 
+            if (buildResult >= 0 && cacheKey != null) {
+                resultCacheKeys.put(name, cacheKey);  // Completed build: cacheable once failure analysis is done
+            }
             if (buildResult == 0) {
+                markBuilt(task, workPath);
                 return new TestResult(name, type, true, "Build successful", elapsed(startTime), logFile);
             } else if (buildResult == -1) {
-                return new TestResult(name, type, false, "Build timed out after " + effectiveTimeout + " min", elapsed(startTime), logFile);
+                return new TestResult(name, type, false, "Build timed out after " + effectiveTimeout + " min", elapsed(startTime), logFile,
+                        classifier.classify(buildResult));
             } else {
-                return new TestResult(name, type, false, "Build failed (exit code: " + buildResult + ")", elapsed(startTime), logFile);
+                return new TestResult(name, type, false, "Build failed (exit code: " + buildResult + ")", elapsed(startTime), logFile,
+                        classifier.classify(buildResult));
             }
 
         } catch (Exception e) {
@@ -930,276 +1925,441 @@ public class EcosystemBuild implements Callable<Integer> {
         }
     }
 
-    private String getDefaultBranch(Path repoPath, Path logFile) {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("git", "symbolic-ref", "refs/remotes/origin/HEAD", "--short");
-            pb.directory(repoPath.toFile());
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
+    // Default branch of a mirror is the branch its HEAD points to
+    private String getDefaultBranch(Path mirrorPath) {
+        String result = readCommandOutput(mirrorPath, "git", "symbolic-ref", "--short", "HEAD");
+        return result != null && !result.isEmpty() ? result : "main";  // Default fallback
+    }
 
-            String result = new String(process.getInputStream().readAllBytes()).trim();
-            process.waitFor();
+    private String getOriginUrl(Path repoPath) {
+        return readCommandOutput(repoPath, "git", "remote", "get-url", "origin");
+    }
 
-            // Result is like "origin/main" or "origin/master", extract just the branch name
-            if (result.startsWith("origin/")) {
-                return result.substring(7);
-            }
-        } catch (Exception e) {
-            // Ignore, fall back to default
+    private boolean isWorktreeOf(Path worktreePath, Path mirrorPath) {
+        String commonDir = readCommandOutput(worktreePath, "git", "rev-parse", "--git-common-dir");
+        try {
+            return commonDir != null && !commonDir.isEmpty() && Files.isSameFile(worktreePath.resolve(commonDir), mirrorPath);
+        } catch (IOException e) {
+            return false;
         }
-        return "main"; // Default fallback
+    }
+
+    // The version's worktree of a project
+    private Path checkoutPath(Path workPath, String name) {
+        return workPath.resolve(WORKTREES_DIR).resolve(vaadinVersion).resolve(name).toAbsolutePath();
+    }
+
+    // Written when a build in the version's worktree passes, with the key of its commit and options
+    private Path builtMarker(Path workPath, String name) {
+        return checkoutPath(workPath, name).resolveSibling(name + ".built");
     }
 
     /**
-     * Detect the project's configured Vaadin version from pom.xml.
-     * Uses Maven help:evaluate to get the vaadin.version property.
-     * @return The version string, or null if not found
+     * Whether a build can skip clean (--incremental): the version's worktree was last built
+     * successfully from the same commit with the same options, so only upstream snapshot
+     * artifacts can have changed since, and unchanged modules and frontend bundles are reused.
      */
-    private String detectProjectVaadinVersion(Path buildPath, String javaVersion) {
+    private boolean buildsIncrementally(BuildTask task, Path workPath) {
+        String key = incrementalKey(task);
+        if (!incremental || key == null) return false;
         try {
-            // Use help:evaluate to get the vaadin.version property
-            List<String> args = List.of(
-                    "help:evaluate",
-                    "-Dexpression=vaadin.version",
-                    "-q",
-                    "-DforceStdout"
-            );
-
-            Path tempLog = Files.createTempFile("vaadin-version", ".log");
-            int result = runMavenSilent(buildPath, tempLog, javaVersion, new ArrayList<>(args));
+            Path marker = builtMarker(workPath, task.name());
+            return Files.exists(marker) && Files.readString(marker).trim().equals(key);
+        } catch (IOException e) {
+            return false;
+        }
+    }
 
-            if (result == 0) {
-                String output = Files.readString(tempLog).trim();
-                // Filter out Maven noise - version should match pattern like 24.6.0 or 25.0-SNAPSHOT
-                if (output.matches("\\d+\\.\\d+.*")) {
-                    Files.deleteIfExists(tempLog);
-                    return output;
-                }
-            }
-            Files.deleteIfExists(tempLog);
-        } catch (Exception e) {
-            // Ignore - version detection is optional
+    private void markBuilt(BuildTask task, Path workPath) {
+        String key = incrementalKey(task);
+        if (key == null) return;
+        try {
+            Files.writeString(builtMarker(workPath, task.name()), key + "\n");
+        } catch (IOException e) {
+            System.err.println("Warning: Could not record build of " + task.name() + ": " + e.getMessage());
         }
-        return null;
+    }
+
+    private String incrementalKey(BuildTask task) {
+        String commit = commitShas.get(task.name());
+        if (commit == null) return null;
+        return ResultCache.key(commit, String.valueOf(task.javaVersion()), String.valueOf(task.buildSubdir()),
+                String.valueOf(task.useAddonsRepo()), String.join(" ", task.extraMvnArgs()));
     }
 
     /**
-     * Run a verification build with the project's original Vaadin version.
-     * Used to determine if a failure is specific to the new version or a pre-existing issue.
-     * @return true if build succeeds, false otherwise
+     * Remove the worktrees of versions not tested for a while, e.g. of earlier releases. The
+     * mirrors forget them the next time a worktree is added.
      */
-    private boolean verifyWithOriginalVersion(Path buildPath, String javaVersion, boolean useAddonsRepo,
-                                               List<String> extraMvnArgs, Path logFile) {
+    private void pruneWorktrees(Path worktreesDir) {
         try {
-            // Reset pom.xml to original state
-            runCommandSilent(buildPath, logFile, "git", "checkout", "--", "pom.xml");
-
-            // Run build without version modification
-            List<String> mvnArgs = new ArrayList<>();
-            mvnArgs.add("clean");
-            mvnArgs.add("verify");
-            mvnArgs.addAll(getCommonMvnArgs());
-            if (useAddonsRepo) {
-                mvnArgs.add("-Pvaadin-addons");
+            Path current = worktreesDir.resolve(vaadinVersion);
+            Files.createDirectories(current);
+            Files.setLastModifiedTime(current, FileTime.from(Instant.now()));
+            Instant cutoff = Instant.now().minus(ARCHIVE_RETENTION);
+            try (var versions = Files.list(worktreesDir)) {
+                for (Path version : versions.toList()) {
+                    if (Files.getLastModifiedTime(version).toInstant().isBefore(cutoff)) {
+                        deleteDirectory(version);
+                    }
+                }
             }
-            mvnArgs.addAll(extraMvnArgs);
-
-            int buildResult = runMavenSilent(buildPath, logFile, javaVersion, mvnArgs);
-            return buildResult == 0;
-        } catch (Exception e) {
-            return false;
+        } catch (IOException e) {
+            System.err.println("⚠️  Warning: Could not prune worktrees: " + e.getMessage());
         }
     }
 
+    private String getHeadCommit(Path repoPath) {
+        String result = readCommandOutput(repoPath, "git", "rev-parse", "HEAD");
+        return result != null && result.matches("[0-9a-f]{40}") ? result : null;
+    }
+
     /**
-     * Check if there's an open GitHub issue for this project and version.
-     * Uses GitHub REST API (no authentication needed for public repos).
-     * @return The issue URL if found, null otherwise
+     * Run a short command and return its trimmed output.
+     * @return The output, or null if the command failed
      */
-    private String findOpenGitHubIssue(String projectName, String version) {
+    private String readCommandOutput(Path workDir, String... command) {
         try {
-            // Use GitHub REST API to search for open issues
-            // Search in repo for issues containing project name and version
-            String searchQuery = java.net.URLEncoder.encode(
-                    "repo:mstahv/vaadin-ecosystem-build is:issue is:open " + projectName + " " + version,
-                    java.nio.charset.StandardCharsets.UTF_8);
-            String url = "https://api.github.com/search/issues?q=" + searchQuery + "&per_page=1";
-
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(java.time.Duration.ofSeconds(10))
-                    .build();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Accept", "application/vnd.github+json")
-                    .timeout(java.time.Duration.ofSeconds(10))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(workDir.toFile());
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
 
-            if (response.statusCode() == 200) {
-                String body = response.body();
-                // Check if there are results: "total_count":1 or more
-                var countMatch = Pattern.compile("\"total_count\"\\s*:\\s*(\\d+)").matcher(body);
-                if (countMatch.find() && Integer.parseInt(countMatch.group(1)) > 0) {
-                    // Extract the HTML URL of the first issue
-                    var urlMatch = Pattern.compile("\"html_url\"\\s*:\\s*\"([^\"]+/issues/\\d+)\"").matcher(body);
-                    if (urlMatch.find()) {
-                        return urlMatch.group(1);
-                    }
-                }
+            String result = new String(process.getInputStream().readAllBytes()).trim();
+            if (process.waitFor() == 0) {
+                return result;
             }
         } catch (Exception e) {
-            // API error - assume no known issue
+            // Ignore - callers fall back to defaults
         }
         return null;
     }
 
-    private int runCommandSilent(Path workDir, Path logFile, String... command) throws IOException, InterruptedException {
-        return runCommandSilent(workDir, logFile, timeoutMinutes, command);
-    }
-
-    private int runCommandSilent(Path workDir, Path logFile, int timeout, String... command) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(workDir.toFile());
-        pb.redirectErrorStream(true);
-
-        Process process = pb.start();
-
-        return readOutputWithTimeout(process, logFile, timeout);
+    /**
+     * Point the project's POMs at the Vaadin version under test and log what was changed.
+     * @return The rewrite result, including the project's original Vaadin version
+     */
+    private VaadinPom.Rewrite setVaadinVersion(Path buildPath, Path projectPath, Path logFile) throws IOException {
+        VaadinPom.Rewrite rewrite = VaadinPom.setVaadinVersion(buildPath, projectPath, vaadinVersion);
+        if (rewrite.modifiedFiles().isEmpty()) {
+            appendToLog(logFile, "[ecosystem-build] No vaadin.version property or vaadin-bom version found to update");
+        } else {
+            appendToLog(logFile, "[ecosystem-build] Set Vaadin version " + rewrite.originalVersion() + " -> " + vaadinVersion + " in "
+                    + rewrite.modifiedFiles().stream().map(f -> projectPath.toAbsolutePath().normalize().relativize(f).toString()).toList());
+        }
+        return rewrite;
     }
 
-    private int runMavenSilent(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs) throws IOException, InterruptedException {
-        return runMavenSilent(workDir, logFile, javaVersion, mvnArgs, timeoutMinutes);
-    }
+    /**
+     * Collect failure context for a failed build: the project's original Vaadin version and
+     * whether it builds with it. Reuses the cached context if the result itself came from the cache.
+     */
+    private FailureMetadata verifyFailure(BuildTask task, Path workPath, boolean silent) {
+        String originalVersion = originalVaadinVersions.get(task.name());
+        ResultCache.Entry cached = cacheHits.get(task.name());
+        if (cached != null && cached.buildsWithOriginal() != null) {
+            return new FailureMetadata(task.repoUrl(), cached.originalVersion(), cached.buildsWithOriginal(), task.notifyUsers());
+        }
 
-    private int runMavenSilent(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs, int timeout) throws IOException, InterruptedException {
-        String mvnCommand = "mvn " + String.join(" ", mvnArgs);
+        Path projectPath = checkoutPath(workPath, task.name());
+        Path buildPath = task.buildSubdir() != null ? projectPath.resolve(task.buildSubdir()) : projectPath;
+        if (!silent) {
+            System.out.printf("  %s🔍 Verifying %s with its original Vaadin version...%s%n", DIM, task.name(), RESET);
+        }
 
-        List<String> command;
-        if (javaVersion != null) {
-            String sdkmanInit = "export SDKMAN_DIR=\"$HOME/.sdkman\" && source \"$SDKMAN_DIR/bin/sdkman-init.sh\"";
-            String sdkInstall = "yes | sdk install java " + javaVersion + " || true";
-            String sdkUse = "sdk use java " + javaVersion;
-            String fullCommand = sdkmanInit + " && " + sdkInstall + " && " + sdkUse + " && " + mvnCommand;
-            command = List.of("bash", "-c", fullCommand);
+        Path verifyLog = versionOutputPath.resolve(task.name() + "-original-build.log");
+        boolean buildsWithOriginal;
+        String key = baselineCacheKey(task, originalVersion);
+        ResultCache.Entry baseline = key != null ? baselineCache.lookup(key) : null;
+        if (baseline != null) {
+            buildsWithOriginal = baseline.success();
+            try {
+                appendToLog(verifyLog, "[ecosystem-build] Commit already verified on " + baseline.builtAt() + ", reusing result and log:");
+                baselineCache.appendLog(key, verifyLog);
+            } catch (IOException e) {
+                // The log is informative only
+            }
         } else {
-            command = new ArrayList<>();
-            command.add("mvn");
-            command.addAll(mvnArgs);
+            long startTime = System.currentTimeMillis();
+            try {
+                Files.deleteIfExists(builtMarker(workPath, task.name()));  // Build output of another version follows
+            } catch (IOException e) {
+                // The next build is then incremental against that output, which Maven detects
+            }
+            List<String> extraMvnArgs = new ArrayList<>(task.extraMvnArgs());
+            Reactor.Selection selection = reactorSelections.get(task.name());
+            if (selection != null) {
+                extraMvnArgs.addAll(selection.mavenArgs());  // The same modules as the failed build
+            }
+            buildsWithOriginal = verifyWithOriginalVersion(task.name(), buildPath, task.javaVersion(),
+                    task.useAddonsRepo(), extraMvnArgs, verifyLog);
+            if (key != null) {
+                try {
+                    baselineCache.store(key, new ResultCache.Entry(buildsWithOriginal,
+                            buildsWithOriginal ? "Builds with original version" : "Fails with original version",
+                            elapsed(startTime), originalVersion, null, Instant.now(), null), verifyLog);
+                } catch (IOException e) {
+                    System.err.println("Warning: Could not cache original version build of " + task.name() + ": " + e.getMessage());
+                }
+            }
         }
 
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(workDir.toFile());
-        pb.redirectErrorStream(true);
-        pb.redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
+        if (!silent && originalVersion != null) {
+            System.out.printf("  %s   Original version: %s, builds: %s%s%n", DIM, originalVersion,
+                    buildsWithOriginal ? "✅" : "❌", RESET);
+        }
+        return new FailureMetadata(task.repoUrl(), originalVersion, buildsWithOriginal, task.notifyUsers());
+    }
 
-        Process process = pb.start();
+    /**
+     * Cache key over everything that determines a build's outcome: the project and its commit, the
+     * resolved Vaadin artifacts, the JDK, the effective Maven arguments and the build directory.
+     * @return The key, or null if the commit or the Vaadin artifacts are unknown
+     */
+    private String resultCacheKey(BuildTask task, List<String> mvnArgs) {
+        String commit = commitShas.get(task.name());
+        if (commit == null || vaadinFingerprint == null) return null;
+        return ResultCache.key(task.name(), commit, vaadinFingerprint, String.valueOf(task.javaVersion()),
+                String.join(" ", mvnArgs), String.valueOf(task.buildSubdir()));
+    }
+
+    /**
+     * Cache key of a build with the project's original Vaadin version. It does not depend on the
+     * Vaadin version under test, so one verification per commit and JDK serves every version.
+     * @return The key, or null if the commit is unknown or the original version is a snapshot
+     */
+    private String baselineCacheKey(BuildTask task, String originalVersion) {
+        String commit = commitShas.get(task.name());
+        if (commit == null || noCache || (originalVersion != null && originalVersion.endsWith("-SNAPSHOT"))) return null;
+        List<String> inputs = new ArrayList<>(List.of(task.name(), commit, String.valueOf(task.javaVersion()),
+                String.valueOf(task.useAddonsRepo()), String.join(" ", task.extraMvnArgs()), String.valueOf(task.buildSubdir())));
+        Reactor.Selection selection = reactorSelections.get(task.name());
+        if (selection != null) {
+            inputs.addAll(selection.mavenArgs());
+        }
+        return ResultCache.key(inputs.toArray(new String[0]));
+    }
 
-        return readOutputWithTimeout(process, logFile, timeout);
+    private void storeInResultCache(BuildTask task, TestResult result, FailureMetadata metadata) {
+        String key = resultCacheKeys.remove(task.name());
+        if (key == null) return;
+        ResultCache.Entry entry = new ResultCache.Entry(result.success(), result.message(), result.durationMs(),
+                originalVaadinVersions.get(task.name()), metadata != null ? metadata.buildsWithOriginal() : null,
+                Instant.now(), result.failure());
+        try {
+            resultCache.store(key, entry, result.logFile());
+        } catch (IOException e) {
+            System.err.println("Warning: Could not cache result of " + task.name() + ": " + e.getMessage());
+        }
     }
 
-    private int runMavenWithTail(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs, int timeout) throws IOException, InterruptedException {
-        String mvnCommand = "mvn " + String.join(" ", mvnArgs);
+    /**
+     * Fingerprint of the Vaadin artifacts builds resolve. Releases are immutable, so the version
+     * is enough. For snapshots, the artifacts are the ones the vaadin-bom resolved by the smoke
+     * test manages. Each snapshot is looked up in the snapshot repository, so the fingerprint does
+     * not depend on which artifacts earlier builds happened to download.
+     * @return The fingerprint, or null if it is unknown and the result cache must not be used
+     */
+    private String computeVaadinFingerprint() {
+        if (!vaadinVersion.endsWith("-SNAPSHOT")) return vaadinVersion;
+        Path bom = localRepository().resolve("com").resolve("vaadin").resolve("vaadin-bom").resolve(vaadinVersion)
+                .resolve("vaadin-bom-" + vaadinVersion + ".pom");
+        Set<String> artifacts = new TreeSet<>();
+        try {
+            artifacts.addAll(VaadinPom.managedArtifacts(Files.readString(bom), vaadinVersion));
+        } catch (IOException e) {
+            return null;  // BOM not resolved - unknown Vaadin artifacts
+        }
+        artifacts.add("com.vaadin:vaadin-bom:" + vaadinVersion);
 
-        List<String> command;
-        if (javaVersion != null) {
-            // Use SDKMAN to install (if needed) and set Java version
-            // Set non-interactive mode and auto-answer yes
-            String sdkmanInit = "export SDKMAN_DIR=\"$HOME/.sdkman\" && source \"$SDKMAN_DIR/bin/sdkman-init.sh\"";
-            String sdkInstall = "yes | sdk install java " + javaVersion + " || true";
-            String sdkUse = "sdk use java " + javaVersion;
-            String fullCommand = sdkmanInit + " && " + sdkInstall + " && " + sdkUse + " && " + mvnCommand;
-            command = List.of("bash", "-c", fullCommand);
+        // Snapshot versions of all artifacts, requested together
+        Map<String, CompletableFuture<HttpResponse<String>>> lookups = new HashMap<>();
+        for (String artifact : artifacts) {
+            String[] gav = artifact.split(":");
+            if (!gav[2].endsWith("-SNAPSHOT")) continue;
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(SNAPSHOT_REPOSITORY_URL + "/" + gav[0].replace('.', '/') + "/" + gav[1] + "/" + gav[2] + "/maven-metadata.xml"))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            lookups.put(artifact, HTTP.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        List<String> inputs = new ArrayList<>(List.of(vaadinVersion));
+        try {
+            for (String artifact : artifacts) {
+                CompletableFuture<HttpResponse<String>> lookup = lookups.get(artifact);
+                if (lookup == null) {
+                    inputs.add(artifact);
+                    continue;
+                }
+                HttpResponse<String> response = lookup.get();
+                if (response.statusCode() == 404) {
+                    inputs.add(artifact + " unpublished");  // Managed, but never deployed as a snapshot
+                    continue;
+                }
+                Matcher timestamp = SNAPSHOT_TIMESTAMP.matcher(response.body());
+                Matcher buildNumber = SNAPSHOT_BUILD_NUMBER.matcher(response.body());
+                if (response.statusCode() != 200 || !timestamp.find() || !buildNumber.find()) return null;
+                inputs.add(artifact + " " + timestamp.group(1) + "-" + buildNumber.group(1));
+            }
+        } catch (ExecutionException e) {
+            return null;  // Snapshot repository not reachable
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return ResultCache.key(inputs.toArray(new String[0]));
+    }
+
+    /**
+     * Run a verification build with the project's original Vaadin version.
+     * Used to determine if a failure is specific to the new version or a pre-existing issue.
+     * @return true if build succeeds, false otherwise
+     */
+    private boolean verifyWithOriginalVersion(String name, Path buildPath, String javaVersion, boolean useAddonsRepo,
+                                               List<String> extraMvnArgs, Path logFile) {
+        try {
+            // Reset POMs (including parent POMs outside buildSubdir) to their original state
+            runCommandSilent(buildPath, logFile, "git", "checkout", "--", ":/");
+
+            // Run build without version modification
+            List<String> mvnArgs = new ArrayList<>();
+            mvnArgs.add("clean");
+            mvnArgs.add("verify");
+            mvnArgs.addAll(getCommonMvnArgs());
+            if (useAddonsRepo) {
+                mvnArgs.add("-Pvaadin-addons");
+            }
+            mvnArgs.addAll(extraMvnArgs);
+            if (layeredRepository != null) {
+                mvnArgs.addAll(layeredRepository.mavenArgs(name));
+            }
+
+            int buildResult = runMavenSilent(buildPath, logFile, javaVersion, mvnArgs);
+            return buildResult == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Find the open build-failure issue for this project and version.
+     * @return The issue URL if found, null otherwise
+     */
+    private String findKnownIssue(String projectName, String version) {
+        try {
+            return knownIssues.get().get(projectName + " " + version);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read all open build-failure issues once and index them by the project and version in their
+     * title, as created by the workflow ("Build failing: project against Vaadin version").
+     */
+    private Map<String, String> loadKnownIssues(Path workPath) {
+        IssueSource source;
+        if (issuesSource == null || issuesSource.startsWith("http://") || issuesSource.startsWith("https://")) {
+            source = new GitHubIssueSource(issuesSource != null ? issuesSource : GITHUB_API_URL,
+                    workPath.resolve(ISSUE_CACHE_DIR));
         } else {
-            command = new ArrayList<>();
-            command.add("mvn");
-            command.addAll(mvnArgs);
+            source = new FileIssueSource(Path.of(issuesSource));
         }
 
+        Map<String, String> index = new HashMap<>();
+        try {
+            for (IssueSource.Issue issue : source.openIssues()) {
+                Matcher title = ISSUE_TITLE.matcher(issue.title());
+                if (title.matches()) {
+                    index.putIfAbsent(title.group(1) + " " + title.group(2), issue.url());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("⚠️  Warning: Could not read open issues, failures are not matched to known issues: " + Objects.requireNonNullElse(e.getMessage(), e.toString()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return index;
+    }
+
+    private int runCommandSilent(Path workDir, Path logFile, String... command) throws IOException, InterruptedException {
+        return runCommandSilent(workDir, logFile, timeoutMinutes, command);
+    }
+
+    private int runCommandSilent(Path workDir, Path logFile, int timeout, String... command) throws IOException, InterruptedException {
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(workDir.toFile());
         pb.redirectErrorStream(true);
-        pb.redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
 
         Process process = pb.start();
 
-        // Timeout watchdog - destroys process if it exceeds the time limit
-        AtomicBoolean timedOut = new AtomicBoolean(false);
-        Thread watchdog = new Thread(() -> {
-            try {
-                if (!process.waitFor(timeout, TimeUnit.MINUTES)) {
-                    timedOut.set(true);
-                    process.destroyForcibly();
-                }
-            } catch (InterruptedException e) {
-                // Watchdog interrupted = process finished before timeout
-            }
-        });
-        watchdog.setDaemon(true);
-        watchdog.start();
+        return readOutputWithTimeout(process, logFile, timeout, null);
+    }
 
-        LinkedList<String> tailBuffer = new LinkedList<>();
-        int displayedLines = 0;
+    private int runMavenSilent(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs) throws IOException, InterruptedException {
+        return runMavenSilent(workDir, logFile, javaVersion, mvnArgs, timeoutMinutes, null);
+    }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-             BufferedWriter writer = Files.newBufferedWriter(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+    private int runMavenSilent(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs, int timeout,
+                               Consumer<String> outputListener) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(buildMavenCommand(javaVersion, mvnArgs));
+        pb.directory(workDir.toFile());
+        pb.redirectErrorStream(true);
+        pb.redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Write to log file
-                writer.write(line);
-                writer.newLine();
-                writer.flush();
+        Process process = pb.start();
 
-                // Update tail buffer
-                tailBuffer.addLast(line);
-                if (tailBuffer.size() > TAIL_LINES) {
-                    tailBuffer.removeFirst();
-                }
+        return readOutputWithTimeout(process, logFile, timeout, outputListener);
+    }
 
-                // Clear previous tail display
-                clearTailLines(displayedLines);
+    private int runMavenWithTail(Path workDir, Path logFile, String javaVersion, List<String> mvnArgs, int timeout,
+                                 Consumer<String> outputListener) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(buildMavenCommand(javaVersion, mvnArgs));
+        pb.directory(workDir.toFile());
+        pb.redirectErrorStream(true);
+        pb.redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
 
-                // Print current tail
-                displayedLines = 0;
-                for (String tailLine : tailBuffer) {
-                    String truncated = tailLine.length() > 70 ? tailLine.substring(0, 67) + "..." : tailLine;
-                    System.out.printf("  %s%s%s%n", DIM, truncated, RESET);
-                    displayedLines++;
-                }
+        Process process = pb.start();
+
+        // Show the latest lines while the output is captured; redrawn at the frame rate, not per line
+        LogTail tail = logTail(logFile);
+        int exitCode;
+        try (Renderer renderer = new Renderer(System.out, FRAME_INTERVAL, out -> {
+            for (String tailLine : tail.last(TAIL_LINES)) {
+                String truncated = tailLine.length() > 70 ? tailLine.substring(0, 67) + "..." : tailLine;
+                out.printf("  %s%s%s%n", DIM, truncated, RESET);
             }
-        } catch (IOException e) {
-            if (!timedOut.get()) throw e;
-            // Swallow IOException caused by process being destroyed on timeout
+        })) {
+            exitCode = readOutputWithTimeout(process, logFile, timeout, outputListener);
+            // Clear tail after build completes
+            renderer.clear();
         }
-
-        watchdog.interrupt();
-
-        // Clear tail after build completes
-        clearTailLines(displayedLines);
         lastOutputLines = countOutputLines();
 
-        process.waitFor(); // Ensure process is fully terminated
-        if (timedOut.get()) {
+        if (exitCode == -1) {
             System.out.println(RED + "⏱️  Build timed out after " + timeout + " minutes" + RESET);
-            return -1; // Timeout exit code
         }
-        return process.exitValue();
+        return exitCode;
     }
 
     /**
      * Reads process output to a log file with a timeout watchdog.
      * The watchdog destroys the process if it exceeds the timeout,
      * which closes the stream and unblocks the readLine loop.
+     * If a listener is given, it sees every line as it is captured.
      */
-    private int readOutputWithTimeout(Process process, Path logFile, int timeout) throws IOException, InterruptedException {
+    int readOutputWithTimeout(Process process, Path logFile, int timeout, Consumer<String> outputListener) throws IOException, InterruptedException {
         AtomicBoolean timedOut = new AtomicBoolean(false);
         Thread watchdog = new Thread(() -> {
             try {
                 if (!process.waitFor(timeout, TimeUnit.MINUTES)) {
                     timedOut.set(true);
-                    process.destroyForcibly();
+                    terminate(process);
                 }
             } catch (InterruptedException e) {
                 // Watchdog interrupted = process finished before timeout
@@ -1208,12 +2368,28 @@ public class EcosystemBuild implements Callable<Integer> {
         watchdog.setDaemon(true);
         watchdog.start();
 
+        LogTail tail = logTail(logFile);
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
              BufferedWriter writer = Files.newBufferedWriter(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.newLine();
+            // Flush on a timer, so the log file follows the build without a write per line, also
+            // when the output pauses
+            ScheduledFuture<?> flusher = LOG_FLUSHER.scheduleWithFixedDelay(() -> {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    // Reported by the reading thread's next write
+                }
+            }, LOG_FLUSH_MILLIS, LOG_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writer.write(line);
+                    writer.newLine();
+                    tail.add(line);
+                    if (outputListener != null) outputListener.accept(line);
+                }
+            } finally {
+                flusher.cancel(false);
             }
         } catch (IOException e) {
             if (!timedOut.get()) throw e;
@@ -1229,6 +2405,65 @@ public class EcosystemBuild implements Callable<Integer> {
         return process.exitValue();
     }
 
+    /**
+     * Build the command line for a Maven invocation with the configured launcher.
+     * If a Java version is given, SDKMAN installs (if needed) and activates it first;
+     * Maven is exec'd so it replaces the shell and receives termination signals directly.
+     */
+    private List<String> buildMavenCommand(String javaVersion, List<String> mvnArgs) {
+        List<String> args = new ArrayList<>(mavenLauncher.launcherArgs());
+        args.addAll(mvnArgs);
+
+        if (javaVersion != null) {
+            // Set non-interactive mode and auto-answer yes
+            String sdkmanInit = "export SDKMAN_DIR=\"$HOME/.sdkman\" && source \"$SDKMAN_DIR/bin/sdkman-init.sh\"";
+            String sdkInstall = "yes | sdk install java " + javaVersion + " || true";
+            String sdkUse = "sdk use java " + javaVersion;
+            String mvnCommand = "exec " + mavenLauncher.executable() + " " + String.join(" ", args);
+            String fullCommand = sdkmanInit + " && " + sdkInstall + " && " + sdkUse + " && " + mvnCommand;
+            return List.of("bash", "-c", fullCommand);
+        }
+        List<String> command = new ArrayList<>();
+        command.add(mavenLauncher.executable());
+        command.addAll(args);
+        return command;
+    }
+
+    /**
+     * Stop a timed out process. Termination is requested first so Maven (or the mvnd client,
+     * which then cancels the build in its daemon) can shut down cleanly; anything still alive
+     * after a grace period is killed, including child processes that would keep the output
+     * pipe open.
+     */
+    private void terminate(Process process) {
+        List<ProcessHandle> children = process.descendants().toList();
+        children.forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        children.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private static boolean isOnPath(String executable) {
+        String path = System.getenv("PATH");
+        if (path == null) return false;
+        return Arrays.stream(path.split(File.pathSeparator))
+                .anyMatch(dir -> Files.isExecutable(Path.of(dir, executable)));
+    }
+
+    private void appendToLog(Path logFile, String line) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
     private long elapsed(long startTime) {
         return System.currentTimeMillis() - startTime;
     }
@@ -1248,28 +2483,72 @@ public class EcosystemBuild implements Callable<Integer> {
         return args;
     }
 
+    /**
+     * Fetch the vaadin-bom metadata from Maven Central. The last response is kept in the work
+     * directory and revalidated with If-None-Match/If-Modified-Since, so an unchanged file is not
+     * downloaded again, and the cached copy is used if Maven Central is slow or unreachable.
+     */
     private String fetchMavenMetadataXml() {
-        if (cachedMavenMetadataXml != null) return cachedMavenMetadataXml;
+        Path cacheDir = Path.of(workDir, METADATA_CACHE_DIR);
+        Path xmlFile = cacheDir.resolve("vaadin-bom-maven-metadata.xml");
+        Path validatorsFile = cacheDir.resolve("vaadin-bom-maven-metadata.properties");
         try {
-            HttpClient client = HttpClient.newBuilder()
-                    .followRedirects(HttpClient.Redirect.NORMAL)
-                    .build();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://repo1.maven.org/maven2/com/vaadin/vaadin-bom/maven-metadata.xml"))
-                    .timeout(java.time.Duration.ofSeconds(10))
-                    .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Properties validators = new Properties();
+            if (Files.exists(xmlFile) && Files.exists(validatorsFile)) {
+                try (Reader reader = Files.newBufferedReader(validatorsFile)) {
+                    validators.load(reader);
+                }
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(URI.create(VAADIN_BOM_METADATA_URL))
+                    .timeout(Duration.ofSeconds(10));
+            if (validators.getProperty("etag") != null) request.header("If-None-Match", validators.getProperty("etag"));
+            if (validators.getProperty("lastModified") != null) request.header("If-Modified-Since", validators.getProperty("lastModified"));
+
+            HttpResponse<String> response = HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 304) {
+                return Files.readString(xmlFile);
+            }
             if (response.statusCode() == 200) {
-                cachedMavenMetadataXml = response.body();
-                return cachedMavenMetadataXml;
+                Files.createDirectories(cacheDir);
+                Path tempFile = Files.createTempFile(cacheDir, "maven-metadata", ".tmp");
+                Files.writeString(tempFile, response.body());
+                Files.move(tempFile, xmlFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Properties updated = new Properties();
+                response.headers().firstValue("ETag").ifPresent(etag -> updated.setProperty("etag", etag));
+                response.headers().firstValue("Last-Modified").ifPresent(date -> updated.setProperty("lastModified", date));
+                try (Writer writer = Files.newBufferedWriter(validatorsFile)) {
+                    updated.store(writer, null);
+                }
+                return response.body();
             }
+            System.err.println("⚠️  Warning: Could not fetch Maven metadata: HTTP " + response.statusCode());
         } catch (Exception e) {
-            System.err.println("⚠️  Warning: Could not fetch Maven metadata: " + e.getMessage());
+            System.err.println("⚠️  Warning: Could not fetch Maven metadata: " + Objects.requireNonNullElse(e.getMessage(), e.toString()));
+        }
+        try {
+            if (Files.exists(xmlFile)) {
+                System.err.println("📦 Using cached Maven metadata from " + Files.getLastModifiedTime(xmlFile));
+                return Files.readString(xmlFile);
+            }
+        } catch (IOException e) {
+            // No usable cache
         }
         return null;
     }
 
-    private List<String> parseVersionsList(String xml) {
+    // All vaadin-bom versions in metadata order, or null if the metadata is unavailable
+    private List<String> fetchVaadinVersions() {
+        if (vaadinVersions == null) {
+            String xml = fetchMavenMetadataXml();
+            if (xml != null) {
+                vaadinVersions = parseVersionsList(xml);
+            }
+        }
+        return vaadinVersions;
+    }
+
+    List<String> parseVersionsList(String xml) {
         List<String> versions = new ArrayList<>();
         Matcher matcher = Pattern.compile("<version>([^<]+)</version>").matcher(xml);
         while (matcher.find()) {
@@ -1280,9 +2559,8 @@ public class EcosystemBuild implements Callable<Integer> {
 
     private String fetchLatestVaadinVersion() {
         try {
-            String xml = fetchMavenMetadataXml();
-            if (xml != null) {
-                List<String> versions = parseVersionsList(xml);
+            List<String> versions = fetchVaadinVersions();
+            if (versions != null) {
                 // Filter to stable versions only: digits.digits.digits with no suffix
                 Pattern stablePattern = Pattern.compile("^\\d+\\.\\d+\\.\\d+$");
                 String latest = null;
@@ -1309,10 +2587,9 @@ public class EcosystemBuild implements Callable<Integer> {
      */
     private String fetchLatestPreReleaseVersion() {
         try {
-            String xml = fetchMavenMetadataXml();
-            if (xml == null) return null;
+            List<String> versions = fetchVaadinVersions();
+            if (versions == null) return null;
 
-            List<String> versions = parseVersionsList(xml);
             String latestStable = fetchLatestVaadinVersion();
             int[] stableMajorMinor = extractMajorMinor(latestStable);
 
@@ -1334,76 +2611,86 @@ public class EcosystemBuild implements Callable<Integer> {
     }
 
     /**
-     * Detect flaky projects by scanning build archives for alternating pass/fail patterns.
-     * A currently-failing project is flaky if it passed in any of the recent archived builds.
+     * Detect flaky projects from the build history.
+     * A currently-failing project is flaky if it passed in any run within the archive retention period.
      */
-    private void detectFlakyProjects(Path workPath) {
-        Path archivesDir = workPath.resolve(vaadinVersion + "-archives");
-        if (!Files.exists(archivesDir)) return;
-
-        // Get currently failing projects
-        Set<String> currentlyFailing = new HashSet<>();
+    private void detectFlakyProjects() {
+        Instant cutoff = Instant.now().minus(ARCHIVE_RETENTION);
         for (var entry : statusMap.entrySet()) {
-            if (entry.getValue() == BuildStatus.FAILED || entry.getValue() == BuildStatus.KNOWN_ISSUE) {
-                currentlyFailing.add(entry.getKey());
+            if (entry.getValue() != BuildStatus.FAILED && entry.getValue() != BuildStatus.KNOWN_ISSUE) continue;
+            BuildHistory.Entry previous = history.get(vaadinVersion, entry.getKey());
+            if (previous != null && previous.lastPassedAt() != null && previous.lastPassedAt().isAfter(cutoff)) {
+                flakyProjects.add(entry.getKey());
             }
         }
-        if (currentlyFailing.isEmpty()) return;
 
-        try (var dirs = Files.list(archivesDir)) {
-            List<Path> archiveDirs = dirs
-                    .filter(Files::isDirectory)
-                    .sorted(Comparator.comparing(Path::getFileName).reversed()) // newest first
-                    .toList();
+        if (!flakyProjects.isEmpty()) {
+            System.out.println("🔄 Flaky projects detected: " + String.join(", ", flakyProjects));
+        }
+    }
 
-            for (Path dir : archiveDirs) {
-                Path failedFile = dir.resolve("failed-projects.txt");
-                Set<String> archivedFailures = new HashSet<>();
-                if (Files.exists(failedFile)) {
-                    List<String> lines = Files.readAllLines(failedFile);
-                    // Skip first line (vaadin_version=...)
-                    lines.stream().skip(1).filter(l -> !l.isBlank()).forEach(archivedFailures::add);
-                }
-                // Projects that are currently failing but were NOT failing in this archive = flaky
-                for (String project : currentlyFailing) {
-                    if (!archivedFailures.contains(project)) {
-                        flakyProjects.add(project);
-                    }
-                }
+    /**
+     * Append the outcome of every built project to the build history and rewrite its index.
+     */
+    private void recordHistory(List<BuildTask> tasks, Instant runStartedAt) {
+        for (BuildTask task : tasks) {
+            BuildStatus status = statusMap.get(task.name());
+            if (status != BuildStatus.PASSED && status != BuildStatus.FAILED && status != BuildStatus.KNOWN_ISSUE) {
+                continue;
             }
+            history.record(new BuildHistory.Record(runStartedAt, vaadinVersion, task.name(), status,
+                    durationMap.getOrDefault(task.name(), 0L), commitShas.get(task.name()),
+                    task.javaVersion(), resolvedVaadinVersion));
+        }
+        try {
+            history.save();
         } catch (IOException e) {
-            System.err.println("Warning: Could not scan archives for flaky detection: " + e.getMessage());
+            System.err.println("⚠️  Warning: Could not write build history: " + e.getMessage());
         }
+    }
 
-        if (!flakyProjects.isEmpty()) {
-            System.out.println("🔄 Flaky projects detected: " + String.join(", ", flakyProjects));
+    /**
+     * Resolve the exact Vaadin version Maven downloaded. For snapshots this reads the
+     * timestamped version from the local repository metadata written during the smoke test,
+     * e.g. 25.0-SNAPSHOT -> 25.0-20260101.120000-42.
+     */
+    private String resolveVaadinBuildVersion() {
+        if (!vaadinVersion.endsWith("-SNAPSHOT")) return vaadinVersion;
+        Path bomDir = localRepository().resolve("com").resolve("vaadin").resolve("vaadin-bom").resolve(vaadinVersion);
+        try (var files = Files.list(bomDir)) {
+            Optional<Path> metadata = files
+                    .filter(f -> f.getFileName().toString().matches("maven-metadata-.+\\.xml"))
+                    .max(Comparator.comparing(f -> f.toFile().lastModified()));
+            if (metadata.isPresent()) {
+                String xml = Files.readString(metadata.get());
+                Matcher timestamp = SNAPSHOT_TIMESTAMP.matcher(xml);
+                Matcher buildNumber = SNAPSHOT_BUILD_NUMBER.matcher(xml);
+                if (timestamp.find() && buildNumber.find()) {
+                    return vaadinVersion.replace("SNAPSHOT", timestamp.group(1) + "-" + buildNumber.group(1));
+                }
+            }
+        } catch (IOException e) {
+            // Metadata not available - fall back to the requested version
         }
+        return vaadinVersion;
     }
 
     private void archivePreviousLogs(Path workPath, String version) throws IOException {
+        LogArchive archive = new LogArchive(workPath.resolve(LOG_ARCHIVE_DIR));
         Path versionDir = workPath.resolve(version);
-        if (!Files.exists(versionDir)) return;
-
-        // Archive to work/<version>-archives/<timestamp>/
-        Path archivesDir = workPath.resolve(version + "-archives");
-        String timestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").format(LocalDateTime.now());
-        Path archiveTarget = archivesDir.resolve(timestamp);
-        Files.createDirectories(archiveTarget);
-
-        // Move all files from the version directory into the archive
-        try (var entries = Files.list(versionDir)) {
-            entries.forEach(source -> {
-                try {
-                    Files.move(source, archiveTarget.resolve(source.getFileName()), StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    System.err.println("Warning: Could not archive " + source.getFileName() + ": " + e.getMessage());
-                }
-            });
+        if (Files.exists(versionDir)) {
+            String run = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").format(LocalDateTime.now());
+            List<String> archived = archive.archive(version, run, versionDir);
+            publishArchivedRun(workPath, archive, version, run, archived);
         }
-
-        // Delete archives older than 7 days
-        Instant cutoff = Instant.now().minus(Duration.ofDays(7));
-        try (var archives = Files.list(archivesDir)) {
+        archive.prune(ARCHIVE_RETENTION);
+
+        // Delete stubs and the plain archives of earlier versions of this tool, work/<version>-archives/<timestamp>/,
+        // once they are older than the retention period
+        Path legacyArchivesDir = workPath.resolve(version + "-archives");
+        if (!Files.exists(legacyArchivesDir)) return;
+        Instant cutoff = Instant.now().minus(ARCHIVE_RETENTION);
+        try (var archives = Files.list(legacyArchivesDir)) {
             archives.forEach(dir -> {
                 try {
                     if (Files.isDirectory(dir) && Files.getLastModifiedTime(dir).toInstant().isBefore(cutoff)) {
@@ -1416,23 +2703,125 @@ public class EcosystemBuild implements Callable<Integer> {
         }
     }
 
-    private void deleteDirectory(Path path) throws IOException {
-        if (Files.exists(path)) {
-            Files.walk(path)
-                    .sorted(Comparator.reverseOrder())
-                    .map(Path::toFile)
-                    .forEach(File::delete);
+    /**
+     * Links to archived logs, e.g. from the dashboard, point to work/&lt;version&gt;-archives/&lt;run&gt;/&lt;file&gt;,
+     * where earlier versions of this tool kept plain copies. The latest archived run of a version is
+     * written there in full, decompressed from the log archive, so links to the previous run read
+     * as before. When the next run is archived, the files of the one before are replaced with stubs.
+     */
+    private void publishArchivedRun(Path workPath, LogArchive archive, String version, String run, List<String> files) {
+        Path archivesDir = workPath.resolve(version + "-archives");
+        Path marker = archivesDir.resolve(PLAIN_ARCHIVE_MARKER);
+        try {
+            if (Files.exists(marker)) {
+                String previous = Files.readString(marker).strip();
+                writeArchiveStubs(workPath, version, previous, archive.list(version).stream()
+                        .filter(entry -> entry.run().equals(previous))
+                        .map(LogArchive.Entry::file)
+                        .toList());
+            }
+            if (files.isEmpty()) return;
+            Path runDir = archivesDir.resolve(run);
+            Files.createDirectories(runDir);
+            for (String file : files) {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(runDir.resolve(file)))) {
+                    archive.read(version, run, file, out);
+                }
+            }
+            Files.writeString(marker, run);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not publish archived logs to " + archivesDir + ": " + e.getMessage());
         }
     }
 
-    private void printFinalSummary(List<TestResult> results, long totalTimeMs) {
-        System.out.println("-".repeat(60));
-        System.out.println("📁 Build logs saved to: " + versionOutputPath + "/");
-        System.out.println();
+    // Replaces the plain copies of an older archived run with the --read-archive command for each file
+    private void writeArchiveStubs(Path workPath, String version, String run, List<String> files) {
+        if (files.isEmpty()) return;
+        Path stubDir = workPath.resolve(version + "-archives").resolve(run);
+        try {
+            Files.createDirectories(stubDir);
+            for (String file : files) {
+                Files.writeString(stubDir.resolve(file), "This file is kept compressed in " + workPath.resolve(LOG_ARCHIVE_DIR)
+                        + " until " + LocalDate.now().plusDays(ARCHIVE_RETENTION.toDays()) + ". Read it with:\n\n"
+                        + "  jbang EcosystemBuild.java -w " + workPath + " --read-archive " + version + "/" + run + "/" + file + "\n");
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not write archive stubs to " + stubDir + ": " + e.getMessage());
+        }
+    }
 
-        int passed = 0, failed = 0, knownIssues = 0, ignored = 0;
-        for (TestResult result : results) {
-            if (result.message().startsWith("Ignored:")) {
+    /**
+     * List archived logs or stream one of them to stdout.
+     * @return The exit code
+     */
+    private int accessArchive() throws IOException {
+        LogArchive archive = new LogArchive(Path.of(workDir, LOG_ARCHIVE_DIR));
+        if (listArchives) {
+            for (LogArchive.Entry entry : archive.list(vaadinVersion)) {
+                System.out.printf("%s/%s/%s\t%d%n", entry.version(), entry.run(), entry.file(), entry.size());
+            }
+            return 0;
+        }
+
+        String[] parts = readArchive.split("/");
+        if (parts.length != 3) {
+            System.err.println("❌ Expected <version>/<run>/<file>, got: " + readArchive);
+            return 1;
+        }
+        if (!archive.read(parts[0], parts[1], parts[2], System.out)) {
+            System.err.println("❌ No archived log " + readArchive + " (see --list-archives)");
+            return 1;
+        }
+        System.out.flush();
+        return 0;
+    }
+
+    // The shared local repository, filled by the smoke test
+    private static Path localRepository() {
+        return Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    /**
+     * Fold the repository overlays back into the shared local repository. Overlays of passed builds
+     * are merged; overlays of failed builds are discarded, as a broken download may be the cause.
+     */
+    private void mergeRepositoryOverlays(List<BuildTask> tasks) {
+        int merged = 0, discarded = 0;
+        long files = 0;
+        for (BuildTask task : tasks) {
+            if (!layeredRepository.hasOverlay(task.name())) continue;
+            try {
+                if (statusMap.get(task.name()) == BuildStatus.PASSED) {
+                    files += layeredRepository.merge(task.name());
+                    merged++;
+                } else {
+                    layeredRepository.discard(task.name());
+                    discarded++;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("⚠️  Warning: Could not merge repository overlay of " + task.name() + ": " + e.getMessage());
+            }
+        }
+        System.out.printf("📦 Repository overlays: %d merged (%d new files), %d discarded%n", merged, files, discarded);
+    }
+
+    private void deleteDirectory(Path path) throws IOException {
+        if (Files.exists(path)) {
+            Files.walk(path)
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    private void printFinalSummary(List<TestResult> results, long totalTimeMs) {
+        System.out.println("-".repeat(60));
+        System.out.println("📁 Build logs saved to: " + versionOutputPath + "/");
+        System.out.println();
+
+        int passed = 0, failed = 0, knownIssues = 0, ignored = 0;
+        for (TestResult result : results) {
+            if (result.message().startsWith("Ignored:")) {
                 ignored++;
             } else if (result.success()) {
                 passed++;
@@ -1535,6 +2924,54 @@ public class EcosystemBuild implements Callable<Integer> {
                 writer.write("\n");
             }
 
+            // Where build time goes, by kind of Maven step
+            if (!mojoTimings.isEmpty()) {
+                writer.write("## ⏱️ Build Steps\n\n");
+                writer.write("| Project | Resolution | Compile | Frontend | Tests | Other |\n");
+                writer.write("|---------|------------|---------|----------|-------|-------|\n");
+                for (TestResult result : results) {
+                    List<MojoTimer.Execution> executions = mojoTimings.get(result.projectName());
+                    if (executions == null || executions.isEmpty()) continue;
+                    Map<String, Long> byStep = MojoTimer.stepTotals(executions);
+                    writer.write("| " + result.projectName());
+                    for (String step : List.of(MojoTimer.RESOLUTION, "compile", "frontend", "tests", "other")) {
+                        writer.write(" | " + (byStep.containsKey(step) ? formatDuration(byStep.get(step)) : "-"));
+                    }
+                    writer.write(" |\n");
+                }
+                writer.write("\n");
+            }
+
+            // Modules left out of partial builds, so a pass is not mistaken for the whole project building
+            if (!reactorSelections.isEmpty()) {
+                writer.write("## 🧩 Partial Builds\n\n");
+                writer.write("| Project | Selected Modules | Skipped Modules |\n");
+                writer.write("|---------|------------------|-----------------|\n");
+                for (TestResult result : results) {
+                    Reactor.Selection selection = reactorSelections.get(result.projectName());
+                    if (selection == null) continue;
+                    writer.write("| " + result.projectName() + " | " + String.join(", ", selection.modules())
+                            + " | " + String.join(", ", selection.skipped()) + " |\n");
+                }
+                writer.write("\n");
+            }
+
+            // Failure categories and the log lines that show them, so triage does not need the full logs
+            var failures = results.stream().filter(r -> r.failure() != null).toList();
+            if (!failures.isEmpty()) {
+                writer.write("## 🔍 Failure Details\n\n");
+                for (TestResult result : failures) {
+                    writer.write("### " + result.projectName() + ": " + result.failure().category().description + "\n\n");
+                    if (!result.failure().excerpt().isEmpty()) {
+                        writer.write("```\n");
+                        for (String line : result.failure().excerpt()) {
+                            writer.write(line.replace("```", "\'\'\'") + "\n");
+                        }
+                        writer.write("```\n\n");
+                    }
+                }
+            }
+
             writer.write("---\n");
             StringBuilder summary = new StringBuilder();
             summary.append("**Summary:** ").append(results.size()).append(" total");
@@ -1574,13 +3011,16 @@ public class EcosystemBuild implements Callable<Integer> {
                 statusEmoji = "❌ FAILED";
             }
         }
+        if (cacheHits.containsKey(result.projectName())) {
+            statusEmoji += " ♻️ (cached)";
+        }
         String duration = result.durationMs() > 0
                 ? String.format("%.1fs", result.durationMs() / 1000.0)
                 : "-";
         writer.write("| " + result.projectName() + " | " + statusEmoji + " | " + duration + " |\n");
     }
 
-    private void writeFailedProjectsList() {
+    private void writeFailedProjectsList(List<TestResult> results) {
         Path failedFile = versionOutputPath.resolve("failed-projects.txt");
         try (BufferedWriter writer = Files.newBufferedWriter(failedFile)) {
             // Write Vaadin version as first line for CI to use
@@ -1601,6 +3041,10 @@ public class EcosystemBuild implements Callable<Integer> {
         // Write failure metadata as JSON for CI to use in issue creation
         if (!failureMetadata.isEmpty()) {
             Path metadataFile = versionOutputPath.resolve("failure-metadata.json");
+            Map<String, Failure> failures = new HashMap<>();
+            for (TestResult result : results) {
+                if (result.failure() != null) failures.put(result.projectName(), result.failure());
+            }
             try (BufferedWriter writer = Files.newBufferedWriter(metadataFile)) {
                 writer.write("{\n");
                 var entries = new ArrayList<>(failureMetadata.entrySet());
@@ -1614,6 +3058,13 @@ public class EcosystemBuild implements Callable<Integer> {
                     writer.write("    \"repoUrl\": " + (repoUrl != null ? "\"" + repoUrl + "\"" : "null") + ",\n");
                     writer.write("    \"originalVersion\": " + (originalVersion != null ? "\"" + originalVersion + "\"" : "null") + ",\n");
                     writer.write("    \"buildsWithOriginal\": " + builds + ",\n");
+                    Failure failure = failures.get(entry.getKey());
+                    if (failure != null) {
+                        writer.write("    \"failureCategory\": \"" + failure.category().name() + "\",\n");
+                        writer.write("    \"failureDescription\": " + jsonString(failure.category().description) + ",\n");
+                        writer.write("    \"failureExcerpt\": [" + failure.excerpt().stream().map(EcosystemBuild::jsonString)
+                                .collect(java.util.stream.Collectors.joining(", ")) + "],\n");
+                    }
                     writer.write("    \"notifyUsers\": [" + notifyUsers.stream().map(u -> "\"" + u + "\"").collect(java.util.stream.Collectors.joining(", ")) + "]\n");
                     writer.write("  }" + (i < entries.size() - 1 ? "," : "") + "\n");
                 }
@@ -1624,8 +3075,126 @@ public class EcosystemBuild implements Callable<Integer> {
         }
     }
 
+    /**
+     * Write the timed Maven steps of every build as build-steps.tsv: project, module, mojo,
+     * execution id, start offset from the start of the build and duration, in milliseconds.
+     */
+    private void writeMojoTimings() {
+        if (mojoTimings.isEmpty()) return;
+        Path timingsFile = versionOutputPath.resolve("build-steps.tsv");
+        try (BufferedWriter writer = Files.newBufferedWriter(timingsFile)) {
+            writer.write("project\tmodule\tmojo\texecution\tstartMs\tdurationMs\n");
+            for (var entry : new TreeMap<>(mojoTimings).entrySet()) {
+                for (MojoTimer.Execution execution : entry.getValue()) {
+                    writer.write(entry.getKey() + "\t" + execution.module() + "\t" + execution.mojo() + "\t"
+                            + execution.executionId() + "\t" + execution.startMs() + "\t" + execution.durationMs() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️  Warning: Could not write build steps: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write results.json: the state of every project of the run, rewritten as each build or
+     * failure verification completes so CI and the dashboard can act on early failures while
+     * long builds still run. The file is replaced atomically and always complete; "complete"
+     * is true once the run has finished. In concurrent mode callers hold the slots lock, which
+     * also orders the writes.
+     */
+    private void writeResultsJson(List<BuildTask> tasks, Instant runStartedAt, boolean complete) {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"vaadinVersion\": ").append(jsonString(vaadinVersion)).append(",\n");
+        json.append("  \"resolvedVaadinVersion\": ").append(resolvedVaadinVersion != null ? jsonString(resolvedVaadinVersion) : "null").append(",\n");
+        json.append("  \"startedAt\": \"").append(runStartedAt).append("\",\n");
+        json.append("  \"updatedAt\": \"").append(Instant.now()).append("\",\n");
+        json.append("  \"complete\": ").append(complete).append(",\n");
+        TestResult smokeTest = completedResults.values().stream()
+                .filter(r -> r.type() == ProjectType.SMOKE_TEST).findFirst().orElse(null);
+        if (smokeTest != null) {
+            json.append("  \"smokeTest\": {\"success\": ").append(smokeTest.success())
+                    .append(", \"durationMs\": ").append(smokeTest.durationMs()).append("},\n");
+        }
+        json.append("  \"projects\": {");
+        for (int i = 0; i < tasks.size(); i++) {
+            BuildTask task = tasks.get(i);
+            TestResult result = completedResults.get(task.name());
+            String commit = commitShas.get(task.name());
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    ").append(jsonString(task.name())).append(": {\n");
+            json.append("      \"type\": \"").append(task.type()).append("\",\n");
+            json.append("      \"status\": \"").append(statusMap.get(task.name())).append("\",\n");
+            json.append("      \"commit\": ").append(commit != null ? jsonString(commit) : "null").append(",\n");
+            json.append("      \"java\": ").append(task.javaVersion() != null ? jsonString(task.javaVersion()) : "null");
+            if (result != null) {
+                json.append(",\n      \"message\": ").append(jsonString(result.message()));
+                json.append(",\n      \"durationMs\": ").append(result.durationMs());
+                json.append(",\n      \"cached\": ").append(cacheHits.containsKey(task.name()));
+                if (result.logFile() != null) {
+                    json.append(",\n      \"logFile\": ").append(jsonString(result.logFile().getFileName().toString()));
+                }
+            }
+            String issueUrl = knownIssueUrls.get(task.name());
+            if (issueUrl != null) {
+                json.append(",\n      \"knownIssue\": ").append(jsonString(issueUrl));
+            }
+            List<MojoTimer.Execution> executions = mojoTimings.get(task.name());
+            if (executions != null && !executions.isEmpty()) {
+                json.append(",\n      \"phases\": {").append(MojoTimer.stepTotals(executions).entrySet().stream()
+                        .map(e -> "\"" + e.getKey() + "\": " + e.getValue())
+                        .collect(java.util.stream.Collectors.joining(", "))).append("}");
+            }
+            Reactor.Selection selection = reactorSelections.get(task.name());
+            if (selection != null) {
+                json.append(",\n      \"skippedModules\": [").append(selection.skipped().stream().map(EcosystemBuild::jsonString)
+                        .collect(java.util.stream.Collectors.joining(", "))).append("]");
+            }
+            if (result != null && result.failure() != null) {
+                Failure failure = result.failure();
+                json.append(",\n      \"failure\": {\"category\": \"").append(failure.category().name())
+                        .append("\", \"description\": ").append(jsonString(failure.category().description))
+                        .append(", \"excerpt\": [").append(failure.excerpt().stream().map(EcosystemBuild::jsonString)
+                                .collect(java.util.stream.Collectors.joining(", "))).append("]}");
+            }
+            FailureMetadata metadata = failureMetadata.get(task.name());
+            if (metadata != null) {
+                json.append(",\n      \"originalVersion\": ").append(metadata.originalVersion() != null ? jsonString(metadata.originalVersion()) : "null");
+                json.append(",\n      \"buildsWithOriginal\": ").append(metadata.buildsWithOriginal());
+            }
+            json.append("\n    }");
+        }
+        json.append(tasks.isEmpty() ? "}\n" : "\n  }\n").append("}\n");
+
+        try {
+            Files.createDirectories(versionOutputPath);
+            Path tempFile = Files.createTempFile(versionOutputPath, "results", ".tmp");
+            Files.writeString(tempFile, json);
+            Files.move(tempFile, versionOutputPath.resolve("results.json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️  Warning: Could not write results.json: " + e.getMessage());
+        }
+    }
+
+    // A JSON string literal; log lines may contain quotes, backslashes and control characters
+    private static String jsonString(String value) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
     // Version matching for version-specific configuration
-    private boolean matchesVersion(String pattern, String version) {
+    boolean matchesVersion(String pattern, String version) {
         if (pattern == null || version == null) return false;
 
         // Exact match
@@ -1675,7 +3244,7 @@ public class EcosystemBuild implements Callable<Integer> {
 
     // Find matching VersionConfig for a project and Vaadin version
     // Checks project-specific overrides first, then falls back to DEFAULT_VERSION_OVERRIDES
-    private VersionConfig findVersionConfig(Map<String, VersionConfig> overrides, String vaadinVersion) {
+    VersionConfig findVersionConfig(Map<String, VersionConfig> overrides, String vaadinVersion) {
         // First check project-specific overrides
         if (overrides != null && !overrides.isEmpty()) {
             for (var entry : overrides.entrySet()) {
@@ -1695,6 +3264,2096 @@ public class EcosystemBuild implements Callable<Integer> {
         return null;
     }
 
+    /**
+     * Classifies a failed build from its output while the output is captured, so the log never has
+     * to be read again. Only [ERROR] lines are classified: info and warning output of healthy
+     * builds mentions frontend steps and unresolvable descriptors all the time. The plugin of the
+     * first failed Maven goal decides the category; if it does not tell (e.g. no goal failed, or
+     * an enforcer rule), the most specific category seen wins. Lines that match a category are
+     * kept as that category's excerpt (bounded), together with the lines following a compiler
+     * error and the failed goal.
+     */
+    static final class FailureClassifier implements Consumer<String> {
+        private static final int MAX_EXCERPT_LINES = 15;
+        private static final int MAX_LINE_LENGTH = 300;
+        private static final int CONTEXT_LINES = 3;  // Lines after a compiler error, e.g. symbol and location
+
+        private static final LinePattern OUT_OF_MEMORY = new LinePattern(
+                "java\\.lang\\.OutOfMemoryError|JavaScript heap out of memory|Cannot allocate memory|insufficient memory for the Java Runtime"
+                + "|\\] Java heap space|GC overhead limit exceeded",
+                "OutOfMemoryError", "heap out of memory", "Cannot allocate memory", "insufficient memory", "Java heap space", "GC overhead");
+        private static final LinePattern DEPENDENCY_RESOLUTION = new LinePattern(
+                "Could not resolve dependencies|Could not find artifact|Failed to read artifact descriptor|Non-resolvable (parent|import) POM"
+                + "|Could not transfer artifact|resolution will not be reattempted|Failed to collect dependencies|Could not resolve plugin|Plugin .+ could not be resolved",
+                "Could not ", "Failed to ", "Non-resolvable", "resolution will not", "could not be resolved");
+        private static final Pattern COMPILER_ERROR = Pattern.compile("^\\[ERROR\\] .+\\.(java|kt):\\[\\d+(,\\d+)?\\] ");
+        private static final LinePattern FRONTEND = new LinePattern(
+                "npm ERR!|ERR_PNPM|pnpm: |Command `?(npm|pnpm|npx)|vaadin-maven-plugin:[^:]+:(prepare-frontend|build-frontend)"
+                + "|frontend-maven-plugin|error during build:|\\bTS\\d{4}:|Vite build|webpack .*(error|failed)",
+                "npm ERR!", "ERR_PNPM", "pnpm: ", "Command ", "-frontend", "error during build:", "TS", "Vite build", "webpack ");
+        private static final LinePattern TEST_FAILURE = new LinePattern(
+                "<<< (FAILURE|ERROR)!|There are test failures|Tests run: \\d+, Failures: [1-9]|Tests run: \\d+, Failures: \\d+, Errors: [1-9]",
+                "<<< ", "There are test failures", "Tests run: ");
+        private static final Pattern GOAL_FAILURE = Pattern.compile("^\\[ERROR\\] Failed to execute goal ");
+        private static final Pattern GOAL_PLUGIN = Pattern.compile("^\\[ERROR\\] Failed to execute goal [\\w.-]+:([\\w.-]+):[^:\\s]+:[\\w-]+ ");
+
+        private final Map<FailureCategory, List<String>> excerpts = new EnumMap<>(FailureCategory.class);
+        private final Deque<String> lastErrors = new ArrayDeque<>();  // For failures no pattern matches
+        private String goalFailure;
+        private List<String> compilerError;  // Last compiler error, until its symbol and location lines are seen
+
+        @Override
+        public void accept(String line) {
+            if (compilerError != null) {
+                if (compilerError.size() <= CONTEXT_LINES && (line.startsWith("[ERROR]   ") || line.startsWith("  "))) {
+                    compilerError.add(line);
+                    return;
+                }
+                flushCompilerError();
+            }
+            if (!line.startsWith("[ERROR]")) return;
+
+            if (OUT_OF_MEMORY.find(line)) {
+                add(FailureCategory.OUT_OF_MEMORY, line);
+            } else if (DEPENDENCY_RESOLUTION.find(line)) {
+                add(FailureCategory.DEPENDENCY_RESOLUTION, line);
+            } else if (COMPILER_ERROR.matcher(line).find()) {
+                compilerError = new ArrayList<>(List.of(line));
+            } else if (FRONTEND.find(line)) {
+                add(FailureCategory.FRONTEND, line);
+            } else if (TEST_FAILURE.find(line)) {
+                add(FailureCategory.TEST_FAILURE, line);
+            }
+
+            if (goalFailure == null && GOAL_FAILURE.matcher(line).find()) {
+                goalFailure = truncate(line);
+            }
+            lastErrors.addLast(truncate(line));
+            if (lastErrors.size() > MAX_EXCERPT_LINES) lastErrors.removeFirst();
+        }
+
+        /**
+         * @param exitCode Exit code of the build, -1 for a timeout
+         */
+        Failure classify(int exitCode) {
+            flushCompilerError();
+            FailureCategory category;
+            FailureCategory goalCategory = goalCategory();
+            if (exitCode == -1) {
+                category = FailureCategory.TIMEOUT;
+            } else if (goalCategory != null) {
+                category = goalCategory;
+            } else if (!excerpts.isEmpty()) {
+                category = excerpts.keySet().iterator().next();  // EnumMap: most specific first
+            } else {
+                category = exitCode == 137 ? FailureCategory.OUT_OF_MEMORY : FailureCategory.UNKNOWN;
+            }
+
+            List<String> excerpt = new ArrayList<>(excerpts.containsKey(category) ? excerpts.get(category) : lastErrors);
+            if (excerpt.isEmpty() && exitCode == 137) {
+                excerpt.add("Build process killed (exit code 137), likely by the out-of-memory killer");
+            }
+            if (goalFailure != null && !excerpt.contains(goalFailure)) {
+                excerpt.add(goalFailure);
+            }
+            return new Failure(category, List.copyOf(excerpt));
+        }
+
+        // What the plugin of the failed goal implies, null if it does not tell
+        private FailureCategory goalCategory() {
+            if (goalFailure == null) return null;
+            Matcher plugin = GOAL_PLUGIN.matcher(goalFailure);
+            if (plugin.find()) {
+                String artifactId = plugin.group(1);
+                if (artifactId.contains("compiler") || artifactId.startsWith("kotlin-maven")) {
+                    return excerpts.containsKey(FailureCategory.VAADIN_API_COMPILATION)
+                            ? FailureCategory.VAADIN_API_COMPILATION : FailureCategory.COMPILATION;
+                }
+                if (artifactId.matches("(vaadin|flow|hilla|frontend)-maven-plugin")) return FailureCategory.FRONTEND;
+                if (artifactId.contains("surefire") || artifactId.contains("failsafe")) return FailureCategory.TEST_FAILURE;
+            }
+            // "Failed to execute goal on project x: Could not resolve dependencies ..."
+            return DEPENDENCY_RESOLUTION.find(goalFailure) ? FailureCategory.DEPENDENCY_RESOLUTION : null;
+        }
+
+        // The error line and the symbol and location lines tell whether a Vaadin API is involved
+        private void flushCompilerError() {
+            if (compilerError == null) return;
+            FailureCategory category = compilerError.stream().anyMatch(l -> l.contains("com.vaadin"))
+                    ? FailureCategory.VAADIN_API_COMPILATION : FailureCategory.COMPILATION;
+            compilerError.forEach(l -> add(category, l));
+            compilerError = null;
+        }
+
+        private void add(FailureCategory category, String line) {
+            List<String> lines = excerpts.computeIfAbsent(category, c -> new ArrayList<>());
+            if (lines.size() < MAX_EXCERPT_LINES) lines.add(truncate(line));
+        }
+
+        private static String truncate(String line) {
+            return line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH - 3) + "..." : line;
+        }
+
+        /**
+         * A pattern of many alternatives, guarded by literals of which every match contains at
+         * least one. Nearly all build output contains none of them, and the literal search is far
+         * cheaper than letting the regex try every alternative at every position of the line.
+         */
+        private record LinePattern(Pattern pattern, List<String> literals) {
+            LinePattern(String regex, String... literals) {
+                this(Pattern.compile(regex), List.of(literals));
+            }
+
+            boolean find(String line) {
+                for (String literal : literals) {
+                    if (line.contains(literal)) return pattern.matcher(line).find();
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Times the mojo executions of a Maven build from its output. Maven announces each execution
+     * with a line like "--- compiler:3.13.0:compile (default-compile) @ module ---"; an execution
+     * lasts until the next one starts or the build ends. Lines are timestamped as they are
+     * captured, which is within milliseconds of Maven printing them as long as the output is
+     * read continuously.
+     * <p>
+     * Maven resolves a module's build plan and the dependencies of a mojo before announcing it.
+     * The time from a module's header ("-----< group:module >-----") to its first mojo is timed
+     * as a {@value #RESOLUTION} step, which covers the plugin and dependency downloads of a cold
+     * repository. Resolution for a later mojo of the module (e.g. test-scope dependencies before
+     * surefire) is not announced, and is still counted with the preceding execution.
+     */
+    static final class MojoTimer implements Consumer<String> {
+        static final String RESOLUTION = "resolution";
+        private static final Pattern MOJO_START = Pattern.compile("^\\[INFO\\] --- (\\S+):\\S+:(\\S+) \\(([^)]*)\\) @ (\\S+) ---");
+        private static final Pattern MODULE_START = Pattern.compile("^\\[INFO\\] -+< [^:\\s]+:(\\S+) >-+$");
+        private static final Pattern BUILD_END = Pattern.compile("^\\[INFO\\] (BUILD (SUCCESS|FAILURE)|Reactor Summary)");
+
+        /**
+         * @param mojo Plugin prefix and goal, e.g. surefire:test, or {@value #RESOLUTION}
+         * @param startMs Start, relative to the start of the build
+         */
+        record Execution(String module, String mojo, String executionId, long startMs, long durationMs) {
+            // Coarse step the mojo belongs to, for summaries
+            String step() {
+                if (mojo.equals(RESOLUTION)) return RESOLUTION;
+                String plugin = mojo.substring(0, mojo.indexOf(':'));
+                return switch (plugin) {
+                    case "compiler", "kotlin" -> "compile";
+                    case "vaadin", "frontend", "flow" -> "frontend";
+                    case "surefire", "failsafe" -> "tests";
+                    default -> "other";
+                };
+            }
+        }
+
+        private final long buildStart = System.currentTimeMillis();
+        private final List<Execution> executions = new ArrayList<>();
+        private String[] current;  // module, mojo, execution id
+        private long currentStart;
+
+        @Override
+        public void accept(String line) {
+            if (!line.startsWith("[INFO] ")) return;
+            Matcher start = MOJO_START.matcher(line);
+            Matcher module;
+            if (start.find()) {
+                start(start.group(4), pluginPrefix(start.group(1)) + ":" + start.group(2), start.group(3));
+            } else if ((module = MODULE_START.matcher(line)).find()) {
+                start(module.group(1), RESOLUTION, "");
+            } else if (BUILD_END.matcher(line).find()) {
+                end(System.currentTimeMillis());
+            }
+        }
+
+        private void start(String module, String mojo, String executionId) {
+            long now = System.currentTimeMillis();
+            end(now);
+            current = new String[] { module, mojo, executionId };
+            currentStart = now;
+        }
+
+        // Total duration per coarse step, in execution order
+        static Map<String, Long> stepTotals(List<Execution> executions) {
+            Map<String, Long> totals = new LinkedHashMap<>();
+            for (Execution execution : executions) {
+                totals.merge(execution.step(), execution.durationMs(), Long::sum);
+            }
+            return totals;
+        }
+
+        // Ends the running execution, e.g. when the build fails in it
+        List<Execution> finish() {
+            end(System.currentTimeMillis());
+            return List.copyOf(executions);
+        }
+
+        private void end(long now) {
+            if (current == null) return;
+            executions.add(new Execution(current[0], current[1], current[2], currentStart - buildStart, now - currentStart));
+            current = null;
+        }
+
+        // Maven 3.9 prints plugin prefixes, earlier versions artifact ids: maven-surefire-plugin -> surefire
+        private static String pluginPrefix(String plugin) {
+            return plugin.replaceFirst("^maven-", "").replaceFirst("-maven-plugin$", "").replaceFirst("-plugin$", "");
+        }
+    }
+
+    /**
+     * Compressed, content-deduplicated store for the logs and reports of earlier runs.
+     * <p>
+     * Files are split into chunks of whole lines at content-defined boundaries (a line whose hash
+     * matches a bit pattern ends a chunk), so a line added or removed early in a log only changes
+     * the chunks around it. Each chunk is stored once, gzipped, under its SHA-256 in
+     * {@code objects/}. A run is a small index in {@code runs/<version>/<run>.idx} listing each
+     * file with its size and chunks, so identical logs across runs and versions cost only an index
+     * line. Reading a file streams its chunks in order.
+     */
+    static class LogArchive {
+        private static final int BOUNDARY_MASK = 0x1f;  // On average a chunk ends every 32 lines
+        private static final int MAX_CHUNK_BYTES = 64 * 1024;
+        private static final Duration OBJECT_GRACE = Duration.ofDays(1);  // Objects a concurrent run may be indexing
+
+        record Entry(String version, String run, String file, long size, List<String> chunks) {}
+
+        private final Path objectsDir;
+        private final Path runsDir;
+
+        LogArchive(Path archiveDir) {
+            this.objectsDir = archiveDir.resolve("objects");
+            this.runsDir = archiveDir.resolve("runs");
+        }
+
+        /**
+         * Archive all files of a directory as one run and delete them from the directory.
+         * @return The names of the archived files
+         */
+        List<String> archive(String version, String run, Path sourceDir) throws IOException {
+            List<String> index = new ArrayList<>();
+            List<Path> archived = new ArrayList<>();
+            try (var files = Files.list(sourceDir)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    try {
+                        List<String> chunks = storeChunks(file);
+                        index.add(file.getFileName() + "\t" + Files.size(file) + "\t" + String.join(",", chunks));
+                        archived.add(file);
+                    } catch (IOException e) {
+                        System.err.println("Warning: Could not archive " + file.getFileName() + ": " + e.getMessage());
+                    }
+                }
+            }
+            if (index.isEmpty()) return List.of();
+
+            Path indexFile = runsDir.resolve(version).resolve(run + ".idx");
+            Files.createDirectories(indexFile.getParent());
+            Path tempFile = Files.createTempFile(indexFile.getParent(), run, ".tmp");
+            Files.write(tempFile, index);
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Path file : archived) {
+                Files.delete(file);
+            }
+            return archived.stream().map(file -> file.getFileName().toString()).toList();
+        }
+
+        List<Entry> list(String version) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            if (!Files.exists(runsDir)) return entries;
+            try (var indexes = Files.find(runsDir, 2, (path, attrs) -> attrs.isRegularFile()
+                    && path.getFileName().toString().endsWith(".idx"))) {
+                for (Path indexFile : indexes.sorted().toList()) {
+                    String indexVersion = indexFile.getParent().getFileName().toString();
+                    if (version == null || version.equals(indexVersion)) {
+                        entries.addAll(readIndex(indexVersion, indexFile));
+                    }
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * Stream an archived file.
+         * @return false if the run or the file is not in the archive
+         */
+        boolean read(String version, String run, String file, OutputStream out) throws IOException {
+            Path indexFile = runsDir.resolve(version).resolve(run + ".idx");
+            if (!Files.exists(indexFile)) return false;
+            for (Entry entry : readIndex(version, indexFile)) {
+                if (entry.file().equals(file)) {
+                    for (String chunk : entry.chunks()) {
+                        try (InputStream in = new java.util.zip.GZIPInputStream(Files.newInputStream(objectPath(chunk)))) {
+                            in.transferTo(out);
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Delete runs older than the given age and the chunks no remaining run refers to.
+         */
+        void prune(Duration maxAge) {
+            if (!Files.exists(runsDir)) return;
+            Instant cutoff = Instant.now().minus(maxAge);
+            try {
+                Set<String> referenced = new HashSet<>();
+                try (var indexes = Files.find(runsDir, 2, (path, attrs) -> attrs.isRegularFile()
+                        && path.getFileName().toString().endsWith(".idx"))) {
+                    for (Path indexFile : indexes.toList()) {
+                        if (Files.getLastModifiedTime(indexFile).toInstant().isBefore(cutoff)) {
+                            Files.delete(indexFile);
+                        } else {
+                            for (Entry entry : readIndex(indexFile.getParent().getFileName().toString(), indexFile)) {
+                                referenced.addAll(entry.chunks());
+                            }
+                        }
+                    }
+                }
+
+                if (!Files.exists(objectsDir)) return;
+                Instant graceCutoff = Instant.now().minus(OBJECT_GRACE);
+                try (var objects = Files.find(objectsDir, 2, (path, attrs) -> attrs.isRegularFile())) {
+                    for (Path object : objects.toList()) {
+                        String hash = object.getFileName().toString().replace(".gz", "");
+                        if (!referenced.contains(hash)
+                                && Files.getLastModifiedTime(object).toInstant().isBefore(graceCutoff)) {
+                            Files.delete(object);
+                        }
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Warning: Could not prune log archive: " + e.getMessage());
+            }
+        }
+
+        // Split a file into content-defined chunks of whole lines and store the missing ones
+        private List<String> storeChunks(Path file) throws IOException {
+            List<String> chunks = new ArrayList<>();
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                int lineHash = 1;  // Not 0, so empty lines do not end chunks
+                int b;
+                while ((b = in.read()) != -1) {
+                    chunk.write(b);
+                    if (b != '\n') {
+                        lineHash = 31 * lineHash + b;
+                        continue;
+                    }
+                    // Mix the bits, so similar lines do not all land on the same side of the mask
+                    int mixed = lineHash ^ (lineHash >>> 16);
+                    if ((mixed * 0x45d9f3b & BOUNDARY_MASK) == 0 || chunk.size() >= MAX_CHUNK_BYTES) {
+                        chunks.add(storeChunk(chunk.toByteArray()));
+                        chunk.reset();
+                    }
+                    lineHash = 1;
+                }
+            }
+            if (chunk.size() > 0) {
+                chunks.add(storeChunk(chunk.toByteArray()));
+            }
+            return chunks;
+        }
+
+        private String storeChunk(byte[] content) throws IOException {
+            String hash;
+            try {
+                hash = HexFormat.of().formatHex(java.security.MessageDigest.getInstance("SHA-256").digest(content));
+            } catch (java.security.NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            Path object = objectPath(hash);
+            if (Files.exists(object)) {
+                Files.setLastModifiedTime(object, FileTime.from(Instant.now()));  // Protect from a concurrent prune
+                return hash;
+            }
+            Files.createDirectories(object.getParent());
+            Path tempFile = Files.createTempFile(object.getParent(), hash, ".tmp");
+            try (OutputStream out = new java.util.zip.GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                out.write(content);
+            }
+            try {
+                Files.move(tempFile, object, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.delete(tempFile);  // Stored meanwhile with identical content
+            }
+            return hash;
+        }
+
+        private Path objectPath(String hash) {
+            return objectsDir.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+        }
+
+        private static List<Entry> readIndex(String version, Path indexFile) throws IOException {
+            String run = indexFile.getFileName().toString().replace(".idx", "");
+            List<Entry> entries = new ArrayList<>();
+            for (String line : Files.readAllLines(indexFile)) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 3) continue;
+                List<String> chunks = fields[2].isEmpty() ? List.of() : List.of(fields[2].split(","));
+                entries.add(new Entry(version, run, fields[0], Long.parseLong(fields[1]), chunks));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Redraws a region at the bottom of the terminal at a fixed frame rate. Each frame is rendered
+     * into a buffer and compared with the previous one line by line; only the changed lines are
+     * rewritten, in a single write, and unchanged frames are not written at all. The region's
+     * content comes from state the workers update, so the display cost does not depend on how
+     * fast builds produce output. The region must fit the terminal, lines that scrolled off it
+     * cannot be redrawn.
+     */
+    static final class Renderer implements AutoCloseable {
+        private final PrintStream terminal;
+        private final Consumer<PrintStream> frame;
+        private final ScheduledExecutorService scheduler;
+        private String lastFrame = "";
+        private List<String> drawnLines = List.of();
+        private boolean stopped;
+
+        Renderer(PrintStream terminal, Duration interval, Consumer<PrintStream> frame) {
+            this.terminal = terminal;
+            this.frame = frame;
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "renderer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::draw, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void draw() {
+            if (stopped) return;
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(buffer, false, java.nio.charset.StandardCharsets.UTF_8)) {
+                frame.accept(out);
+            } catch (RuntimeException e) {
+                return;  // Skip the frame, the next one will be drawn from fresh state
+            }
+            String text = buffer.toString(java.nio.charset.StandardCharsets.UTF_8);
+            if (text.equals(lastFrame)) return;
+            List<String> lines = text.lines().toList();
+
+            // Move up to the first changed line, then rewrite changed lines and step over the others
+            int first = 0;
+            while (first < lines.size() && first < drawnLines.size() && lines.get(first).equals(drawnLines.get(first))) {
+                first++;
+            }
+            StringBuilder update = new StringBuilder(MOVE_UP.repeat(drawnLines.size() - first));
+            for (int i = first; i < lines.size(); i++) {
+                if (i < drawnLines.size() && lines.get(i).equals(drawnLines.get(i))) {
+                    update.append('\n');
+                } else {
+                    update.append(CLEAR_LINE).append(lines.get(i)).append('\n');
+                }
+            }
+            // Erase what is left of a longer previous frame
+            int surplus = drawnLines.size() - lines.size();
+            if (surplus > 0) {
+                update.append((CLEAR_LINE + "\n").repeat(surplus)).append(MOVE_UP.repeat(surplus));
+            }
+            terminal.print(update);
+            terminal.flush();
+            lastFrame = text;
+            drawnLines = lines;
+        }
+
+        // Stop drawing and remove the region, so regular output continues in its place
+        synchronized void clear() {
+            stopped = true;
+            scheduler.shutdownNow();
+            terminal.print((MOVE_UP + CLEAR_LINE).repeat(drawnLines.size()));
+            terminal.flush();
+            lastFrame = "";
+            drawnLines = List.of();
+        }
+
+        @Override
+        public synchronized void close() {
+            stopped = true;
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Hands builds out to workers (see --worker) over TCP, one connection per worker slot. A slot
+     * asks for the next project whenever it is free, so builds go wherever there is capacity and
+     * no worker idles while projects are queued. Messages are lines, file data follows its
+     * length-prefixed header:
+     * <pre>
+     * coordinator: VERSION &lt;vaadin version&gt;        on connect
+     * worker:      HELLO &lt;slot name&gt;
+     * worker:      NEXT                                the slot is free
+     * coordinator: TASK &lt;project&gt; | DONE
+     * worker:      APPEND &lt;file&gt; &lt;length&gt; + data      log output, while building
+     * worker:      RESULT &lt;length&gt; + properties        the outcome, then NEXT again
+     * </pre>
+     * A project whose worker disconnects before sending its result, or stays silent for longer
+     * than its build and the check with the original version can take, is handed out again, up
+     * to MAX_HANDOUTS times. Projects still queued when no worker has been connected for
+     * NO_WORKER_PATIENCE fail.
+     */
+    static final class Coordinator implements AutoCloseable {
+        private static final Duration CONNECT_PATIENCE = Duration.ofMinutes(5);  // Workers may start before their coordinator
+        private static final Duration NO_WORKER_PATIENCE = Duration.ofMinutes(15);  // Workers run a smoke test before connecting
+        private static final Duration SYNC_ALLOWANCE = Duration.ofMinutes(10);  // Clone or fetch before a build
+        private static final Duration IDLE_READ_TIMEOUT = Duration.ofMinutes(1);  // Workers answer at once when not building
+        private static final int MAX_HANDOUTS = 3;
+
+        record RemoteBuild(TestResult result, FailureMetadata metadata, String commit, List<MojoTimer.Execution> mojoTimings,
+                           Reactor.Selection reactorSelection) {}
+
+        private record Dispatch(BuildTask task, Consumer<String> onStart, CompletableFuture<RemoteBuild> result,
+                                AtomicInteger handouts) {}
+
+        private final ServerSocket server;
+        private final String vaadinVersion;
+        private final Path outputDir;
+        private final Function<Path, LogTail> tails;
+        private final int timeoutMinutes;
+        private final BlockingDeque<Dispatch> queue = new LinkedBlockingDeque<>();
+        private final AtomicInteger connectedWorkers = new AtomicInteger();
+        private final Set<String> workerSlots = ConcurrentHashMap.newKeySet();  // Named by their HELLO
+        private volatile long lastWorkerSeen = System.currentTimeMillis();
+        private volatile boolean closed;
+
+        /**
+         * @param tails Live tail of a log file, fed with the output workers send
+         * @param timeoutMinutes Build timeout of projects without their own
+         */
+        Coordinator(int port, String vaadinVersion, Path outputDir, Function<Path, LogTail> tails, int timeoutMinutes) throws IOException {
+            this.server = new ServerSocket(port);
+            this.vaadinVersion = vaadinVersion;
+            this.outputDir = outputDir;
+            this.tails = tails;
+            this.timeoutMinutes = timeoutMinutes;
+            Thread acceptor = new Thread(this::acceptWorkers, "coordinator");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        // Build a project on the next free worker slot; onStart is called with the slot's name
+        RemoteBuild build(BuildTask task, Consumer<String> onStart) throws InterruptedException, ExecutionException {
+            Dispatch dispatch = new Dispatch(task, onStart, new CompletableFuture<>(), new AtomicInteger());
+            queue.addLast(dispatch);
+            while (true) {
+                try {
+                    return dispatch.result().get(1, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    Duration unattended = Duration.ofMillis(System.currentTimeMillis() - lastWorkerSeen);
+                    // Only fail it while still queued; once handed out, a worker is connected
+                    if (connectedWorkers.get() == 0 && unattended.compareTo(NO_WORKER_PATIENCE) > 0 && queue.remove(dispatch)) {
+                        return failed(task, "No worker connected for " + unattended.toMinutes() + " minutes");
+                    }
+                }
+            }
+        }
+
+        // The connected worker slots; each takes one build at a time, so they are the capacity of the run
+        List<String> workerSlots() {
+            return workerSlots.stream().sorted().toList();
+        }
+
+        // Idle workers are told the run is over
+        @Override
+        public void close() {
+            closed = true;
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Not accepting connections either way
+            }
+        }
+
+        private void acceptWorkers() {
+            while (!closed) {
+                try {
+                    Socket socket = server.accept();
+                    Thread connection = new Thread(() -> serve(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                    connection.setDaemon(true);
+                    connection.start();
+                } catch (IOException e) {
+                    if (!closed) System.err.println("⚠️  Warning: Could not accept worker connection: " + e.getMessage());
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            Dispatch current = null;
+            Duration readTimeout = IDLE_READ_TIMEOUT;
+            String worker = socket.getInetAddress().getHostAddress();
+            connectedWorkers.incrementAndGet();
+            try (socket;
+                 InputStream in = new BufferedInputStream(socket.getInputStream());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                socket.setKeepAlive(true);
+                writeLine(out, "VERSION " + vaadinVersion);
+                String line;
+                while (true) {
+                    // A worker that stops sending while building is as good as gone
+                    readTimeout = current != null ? readTimeout(current.task()) : IDLE_READ_TIMEOUT;
+                    socket.setSoTimeout((int) readTimeout.toMillis());
+                    if ((line = readLine(in)) == null) break;
+                    String[] parts = line.split(" ");
+                    switch (parts[0]) {
+                        case "HELLO" -> {
+                            worker = parts.length > 1 ? parts[1] : worker;
+                            workerSlots.add(worker);
+                        }
+                        case "NEXT" -> {
+                            current = next();
+                            if (current == null) {
+                                writeLine(out, "DONE");
+                                return;
+                            }
+                            String name = current.task().name();
+                            // Logs of an earlier attempt, e.g. on a worker that disconnected
+                            Files.deleteIfExists(outputDir.resolve(name + "-build.log"));
+                            Files.deleteIfExists(outputDir.resolve(name + "-original-build.log"));
+                            current.handouts().incrementAndGet();
+                            current.onStart().accept(worker);
+                            writeLine(out, "TASK " + name);
+                        }
+                        case "APPEND" -> {
+                            String file = parts[1];
+                            if (current == null || !file.startsWith(current.task().name() + "-") || !file.endsWith(".log")
+                                    || file.contains("/") || file.contains("\\")) {
+                                throw new IOException("Unexpected log file " + file);
+                            }
+                            byte[] data = in.readNBytes(Integer.parseInt(parts[2]));
+                            Path logFile = outputDir.resolve(file);
+                            Files.write(logFile, data, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                            LogTail tail = tails.apply(logFile);
+                            new String(data, java.nio.charset.StandardCharsets.UTF_8).lines().forEach(tail::add);
+                        }
+                        case "RESULT" -> {
+                            if (current == null) throw new IOException("Result without a project");
+                            Properties props = new Properties();
+                            props.load(new ByteArrayInputStream(in.readNBytes(Integer.parseInt(parts[1]))));
+                            current.result().complete(toRemoteBuild(current.task(), props));
+                            current = null;
+                        }
+                        default -> throw new IOException("Unexpected message: " + line);
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                System.err.println("⚠️  Warning: Lost worker " + worker + ": no message for " + readTimeout.toSeconds() + "s");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️  Warning: Lost worker " + worker + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lastWorkerSeen = System.currentTimeMillis();
+                connectedWorkers.decrementAndGet();
+                workerSlots.remove(worker);
+                if (current != null) {
+                    String name = current.task().name();
+                    if (current.handouts().get() >= MAX_HANDOUTS) {
+                        System.err.println("⚠️  Warning: Worker " + worker + " left while building " + name + ", giving up after " + MAX_HANDOUTS + " workers");
+                        current.result().complete(failed(current.task(), "Lost " + MAX_HANDOUTS + " workers while building"));
+                    } else {
+                        System.err.println("⚠️  Warning: Worker " + worker + " left while building " + name + ", handing it out again");
+                        queue.addFirst(current);
+                    }
+                }
+            }
+        }
+
+        // The longest a worker may be silent while building: the build, the check with the original version and a sync
+        private Duration readTimeout(BuildTask task) {
+            int minutes = task.timeoutMinutes() > 0 ? task.timeoutMinutes() : timeoutMinutes;
+            return Duration.ofMinutes(2L * minutes).plus(SYNC_ALLOWANCE);
+        }
+
+        private RemoteBuild failed(BuildTask task, String message) {
+            TestResult result = new TestResult(task.name(), task.type(), false, message, 0,
+                    outputDir.resolve(task.name() + "-build.log"), null);
+            return new RemoteBuild(result, null, null, List.of(), null);
+        }
+
+        // The next project to build, or null once the run is over
+        private Dispatch next() throws InterruptedException {
+            while (!closed) {
+                Dispatch dispatch = queue.pollFirst(250, TimeUnit.MILLISECONDS);
+                if (dispatch != null) return dispatch;
+            }
+            return null;
+        }
+
+        private RemoteBuild toRemoteBuild(BuildTask task, Properties props) {
+            String failureCategory = props.getProperty("failureCategory");
+            Failure failure = failureCategory != null
+                    ? new Failure(FailureCategory.valueOf(failureCategory), props.getProperty("failureExcerpt", "").lines().toList())
+                    : null;
+            TestResult result = new TestResult(task.name(), task.type(), Boolean.parseBoolean(props.getProperty("success")),
+                    props.getProperty("message", ""), Long.parseLong(props.getProperty("durationMs", "0")),
+                    outputDir.resolve(task.name() + "-build.log"), failure);
+            FailureMetadata metadata = props.containsKey("buildsWithOriginal")
+                    ? new FailureMetadata(task.repoUrl(), props.getProperty("originalVersion"),
+                            Boolean.parseBoolean(props.getProperty("buildsWithOriginal")), task.notifyUsers())
+                    : null;
+            List<MojoTimer.Execution> mojoTimings = props.getProperty("mojoTimings", "").lines()
+                    .map(line -> line.split("\t"))
+                    .filter(fields -> fields.length == 5)
+                    .map(fields -> new MojoTimer.Execution(fields[0], fields[1], fields[2], Long.parseLong(fields[3]), Long.parseLong(fields[4])))
+                    .toList();
+            Reactor.Selection reactorSelection = props.containsKey("skippedModules")
+                    ? new Reactor.Selection(List.of(props.getProperty("reactorModules").split(",")),
+                            List.of(props.getProperty("skippedModules").split(",")))
+                    : null;
+            return new RemoteBuild(result, metadata, props.getProperty("commit"), mojoTimings, reactorSelection);
+        }
+
+        // Connect to a coordinator at host:port, waiting for it to come up
+        static Socket connect(String address) throws IOException {
+            int colon = address.lastIndexOf(':');
+            if (colon < 1) throw new IOException("Expected host:port, got " + address);
+            String host = address.substring(0, colon);
+            int port = Integer.parseInt(address.substring(colon + 1));
+            long deadline = System.currentTimeMillis() + CONNECT_PATIENCE.toMillis();
+            while (true) {
+                try {
+                    Socket socket = new Socket(host, port);
+                    socket.setKeepAlive(true);
+                    return socket;
+                } catch (IOException e) {
+                    if (System.currentTimeMillis() > deadline) throw e;
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        static String vaadinVersionOf(String address) throws IOException {
+            try (Socket socket = connect(address); InputStream in = socket.getInputStream()) {
+                String greeting = readLine(in);
+                if (greeting == null || !greeting.startsWith("VERSION ")) {
+                    throw new IOException("Unexpected greeting from coordinator: " + greeting);
+                }
+                return greeting.substring("VERSION ".length());
+            }
+        }
+
+        static void writeLine(DataOutputStream out, String line) throws IOException {
+            synchronized (out) {
+                out.write((line + "\n").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+
+        // A line of a message header; data following it is read separately by length
+        static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) return line.size() == 0 ? null : line.toString(java.nio.charset.StandardCharsets.UTF_8);
+                line.write(b);
+            }
+            return line.toString(java.nio.charset.StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Sends what is appended to a worker's log files to the coordinator, at the log flush interval
+     * and when closed, so the coordinator keeps the full logs and a live tail. Only complete lines
+     * are sent until the end.
+     */
+    static final class LogForwarder implements AutoCloseable {
+        private static final int MAX_CHUNK = 1 << 20;
+
+        private final DataOutputStream out;
+        private final List<Path> files;
+        private final long[] offsets;
+        private final ScheduledExecutorService scheduler;
+
+        LogForwarder(DataOutputStream out, List<Path> files) {
+            this.out = out;
+            this.files = files;
+            this.offsets = new long[files.size()];
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "log-forwarder");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> forward(false), LOG_FLUSH_MILLIS, LOG_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void forward(boolean all) {
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                if (!Files.exists(file)) continue;
+                try (RandomAccessFile log = new RandomAccessFile(file.toFile(), "r")) {
+                    while (offsets[i] < log.length()) {
+                        byte[] data = new byte[(int) Math.min(log.length() - offsets[i], MAX_CHUNK)];
+                        log.seek(offsets[i]);
+                        log.readFully(data);
+                        int end = data.length;
+                        if (!all) {
+                            while (end > 0 && data[end - 1] != '\n') end--;
+                            if (end == 0) break;  // Rest of the line comes later
+                        }
+                        synchronized (out) {
+                            Coordinator.writeLine(out, "APPEND " + file.getFileName() + " " + end);
+                            out.write(data, 0, end);
+                            out.flush();
+                        }
+                        offsets[i] += end;
+                    }
+                } catch (IOException e) {
+                    return;  // The connection is gone, which the slot notices when it sends the result
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            scheduler.shutdownNow();
+            forward(true);
+        }
+    }
+
+    /**
+     * The last lines written to a log, for the live display. There is a single writer, the
+     * thread capturing the process output, and any number of readers. The writer stores a line
+     * in the ring and then publishes the new count; readers never block it. A reader that races a
+     * writer lapping the ring may see a newer line in place of an old one, which the next redraw
+     * corrects.
+     */
+    static final class LogTail {
+        private final AtomicReferenceArray<String> ring;
+        private final AtomicLong count = new AtomicLong();
+
+        LogTail(int capacity) {
+            this.ring = new AtomicReferenceArray<>(capacity);
+        }
+
+        void add(String line) {
+            long next = count.get();
+            ring.set((int) (next % ring.length()), line);
+            count.set(next + 1);
+        }
+
+        // Up to n of the latest lines, oldest first
+        List<String> last(int n) {
+            long end = count.get();
+            long start = Math.max(0, end - Math.min(n, ring.length()));
+            List<String> lines = new ArrayList<>((int) (end - start));
+            for (long i = start; i < end; i++) {
+                lines.add(ring.get((int) (i % ring.length())));
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * Admission control for concurrent builds. A queued build may start only while the system
+     * load, the available memory and the number of running Java processes are within their limits,
+     * and only after the previous build had some time to ramp up, so its load is visible. Builds
+     * that are already running are never stopped: under pressure the number of running builds
+     * shrinks as they finish. At least one build is always admitted, so a run never stalls.
+     */
+    static class AdmissionController {
+        private static final long RAMP_UP_MILLIS = 15_000;
+        private static final long POLL_MILLIS = 2_000;
+
+        private final double maxLoad;
+        private final long minFreeMemoryMb;
+        private final int maxJavaProcesses;  // 0 = no limit
+        private int running;
+        private long lastAdmission;
+        private volatile String holdReason;
+
+        AdmissionController(double maxLoad, long minFreeMemoryMb, int maxJavaProcesses) {
+            this.maxLoad = maxLoad;
+            this.minFreeMemoryMb = minFreeMemoryMb;
+            this.maxJavaProcesses = maxJavaProcesses;
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            while (running > 0) {
+                String reason = System.currentTimeMillis() - lastAdmission < RAMP_UP_MILLIS
+                        ? "previous build ramping up" : checkPressure();
+                holdReason = reason;
+                if (reason == null) break;
+                wait(POLL_MILLIS);
+            }
+            holdReason = null;
+            running++;
+            lastAdmission = System.currentTimeMillis();
+        }
+
+        synchronized void release() {
+            running--;
+            notifyAll();
+        }
+
+        // Why queued builds are currently held back, or null if they are not
+        String holdReason() {
+            return holdReason;
+        }
+
+        private String checkPressure() {
+            double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+            if (load >= maxLoad) {
+                return String.format("load %.1f ≥ %.1f", load, maxLoad);
+            }
+            long freeMb = availableMemoryMb();
+            if (freeMb >= 0 && freeMb < minFreeMemoryMb) {
+                return "free memory " + freeMb + " MB < " + minFreeMemoryMb + " MB";
+            }
+            if (maxJavaProcesses > 0) {
+                long javaProcesses = ProcessHandle.allProcesses()
+                        .filter(p -> p.pid() != ProcessHandle.current().pid())
+                        .filter(p -> p.info().command().map(c -> c.endsWith("/java") || c.endsWith("/mvnd")).orElse(false))
+                        .count();
+                if (javaProcesses >= maxJavaProcesses) {
+                    return javaProcesses + " Java processes ≥ " + maxJavaProcesses;
+                }
+            }
+            return null;
+        }
+
+        // MemAvailable includes reclaimable page cache, so prefer it over the JVM's free memory
+        private static long availableMemoryMb() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/meminfo"))) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("\\D+", "")) / 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Not Linux - fall back to the JVM's view
+            }
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+                return os.getFreeMemorySize() / (1024 * 1024);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Local repository layering for concurrent builds. Every build writes to its own overlay
+     * repository and reads the shared base repository as a read-only tail (Maven 3.9+
+     * maven.repo.local.tail), so concurrent builds never download into, lock or update metadata
+     * in the same directory. Overlays are merged into the base or discarded after the run.
+     */
+    static class LayeredRepository {
+        private final Path base;
+        private final Path overlaysDir;
+
+        LayeredRepository(Path base, Path overlaysDir) {
+            this.base = base;
+            this.overlaysDir = overlaysDir;
+        }
+
+        List<String> mavenArgs(String project) {
+            return List.of(
+                    "-Dmaven.repo.local=" + overlay(project),
+                    "-Dmaven.repo.local.tail=" + base,
+                    // Base artifacts may have been downloaded from other repositories than the build uses
+                    "-Dmaven.repo.local.tail.ignoreAvailability=true");
+        }
+
+        boolean hasOverlay(String project) {
+            return Files.isDirectory(overlay(project));
+        }
+
+        /**
+         * Copy artifacts that the base does not have yet and delete the overlay. Update-check state
+         * (metadata, *.lastUpdated, resolver-status.properties) and partial downloads stay out of the
+         * base, which keeps its own view of when remote repositories were last checked.
+         * @return Number of files copied into the base
+         */
+        long merge(String project) throws IOException {
+            Path overlay = overlay(project);
+            long copied = 0;
+            try (var files = Files.walk(overlay)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    String fileName = file.getFileName().toString();
+                    if (fileName.startsWith("maven-metadata") || fileName.endsWith(".lastUpdated")
+                            || fileName.equals("resolver-status.properties")
+                            || fileName.endsWith(".part") || fileName.endsWith(".lock")) {
+                        continue;
+                    }
+                    Path target = base.resolve(overlay.relativize(file).toString());
+                    if (Files.exists(target)) continue;
+                    Files.createDirectories(target.getParent());
+                    // Copy next to the target and move, so concurrent Maven runs never see half a file
+                    Path temp = Files.createTempFile(target.getParent(), fileName, ".merge");
+                    try {
+                        Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                        copied++;
+                    } catch (FileAlreadyExistsException e) {
+                        // Another process installed it meanwhile
+                    } finally {
+                        Files.deleteIfExists(temp);
+                    }
+                }
+            }
+            discard(project);
+            return copied;
+        }
+
+        void discard(String project) throws IOException {
+            delete(overlay(project));
+        }
+
+        void discardAll() throws IOException {
+            delete(overlaysDir);
+        }
+
+        private Path overlay(String project) {
+            return overlaysDir.resolve(project);
+        }
+
+        private static void delete(Path dir) throws IOException {
+            if (!Files.exists(dir)) return;
+            try (var paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build results keyed by a hash of the build inputs. Each entry is a directory with the
+     * result and the compressed build log, so an unchanged project can be reported (and its
+     * log shown) without building it again.
+     */
+    static class ResultCache {
+        private static final String RESULT_FILE = "result.properties";
+        private static final String LOG_FILE = "build.log.gz";
+
+        record Entry(boolean success, String message, long durationMs, String originalVersion,
+                     Boolean buildsWithOriginal, Instant builtAt, Failure failure) {}
+
+        private final Path cacheDir;
+
+        ResultCache(Path cacheDir) {
+            this.cacheDir = cacheDir;
+        }
+
+        static String key(String... inputs) {
+            try {
+                var digest = java.security.MessageDigest.getInstance("SHA-256");
+                for (String input : inputs) {
+                    digest.update(input.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (java.security.NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Entry lookup(String key) {
+            Path resultFile = cacheDir.resolve(key).resolve(RESULT_FILE);
+            if (!Files.exists(resultFile)) return null;
+            try (Reader reader = Files.newBufferedReader(resultFile)) {
+                Properties props = new Properties();
+                props.load(reader);
+                String buildsWithOriginal = props.getProperty("buildsWithOriginal");
+                String failureCategory = props.getProperty("failureCategory");
+                Failure failure = failureCategory != null
+                        ? new Failure(FailureCategory.valueOf(failureCategory), props.getProperty("failureExcerpt", "").lines().toList())
+                        : null;
+                Entry entry = new Entry(Boolean.parseBoolean(props.getProperty("success")),
+                        props.getProperty("message"), Long.parseLong(props.getProperty("durationMs")),
+                        props.getProperty("originalVersion"),
+                        buildsWithOriginal != null ? Boolean.valueOf(buildsWithOriginal) : null,
+                        Instant.parse(props.getProperty("builtAt")), failure);
+                Files.setLastModifiedTime(cacheDir.resolve(key), FileTime.from(Instant.now()));  // Keep used entries
+                return entry;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        void appendLog(String key, Path target) throws IOException {
+            try (InputStream in = new java.util.zip.GZIPInputStream(Files.newInputStream(cacheDir.resolve(key).resolve(LOG_FILE)));
+                 OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                in.transferTo(out);
+            }
+        }
+
+        void store(String key, Entry entry, Path logFile) throws IOException {
+            Path tempDir = Files.createTempDirectory(Files.createDirectories(cacheDir), key + ".tmp");
+            Properties props = new Properties();
+            props.setProperty("success", Boolean.toString(entry.success()));
+            props.setProperty("message", entry.message());
+            props.setProperty("durationMs", Long.toString(entry.durationMs()));
+            if (entry.originalVersion() != null) props.setProperty("originalVersion", entry.originalVersion());
+            if (entry.buildsWithOriginal() != null) props.setProperty("buildsWithOriginal", entry.buildsWithOriginal().toString());
+            props.setProperty("builtAt", entry.builtAt().toString());
+            if (entry.failure() != null) {
+                props.setProperty("failureCategory", entry.failure().category().name());
+                props.setProperty("failureExcerpt", String.join("\n", entry.failure().excerpt()));
+            }
+            try (Writer writer = Files.newBufferedWriter(tempDir.resolve(RESULT_FILE))) {
+                props.store(writer, null);
+            }
+            try (InputStream in = Files.newInputStream(logFile);
+                 OutputStream out = new java.util.zip.GZIPOutputStream(Files.newOutputStream(tempDir.resolve(LOG_FILE)))) {
+                in.transferTo(out);
+            }
+
+            Path target = cacheDir.resolve(key);
+            deleteRecursively(target);
+            Files.move(tempDir, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Remove entries that have not been stored or used within the given age
+        void prune(Duration maxAge) {
+            if (!Files.exists(cacheDir)) return;
+            Instant cutoff = Instant.now().minus(maxAge);
+            try (var entries = Files.list(cacheDir)) {
+                for (Path entry : entries.toList()) {
+                    if (Files.getLastModifiedTime(entry).toInstant().isBefore(cutoff)) {
+                        deleteRecursively(entry);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Could not prune result cache: " + e.getMessage());
+            }
+        }
+
+        private static void deleteRecursively(Path path) throws IOException {
+            if (!Files.exists(path)) return;
+            try (var walk = Files.walk(path)) {
+                walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * In-process reader and rewriter for the Vaadin version of a Maven project.
+     * <p>
+     * Covers the POM of the build directory, its modules (recursively) and local parent POMs
+     * within the project root, so {@code buildSubdir} layouts where the version is managed
+     * in a parent are handled. Edits are textual: only the version values change, formatting
+     * and comments are preserved. Content inside XML comments is ignored.
+     */
+    static class VaadinPom {
+        static final String VERSION_PROPERTY = "vaadin.version";
+
+        private static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+        private static final Pattern DEPENDENCY = Pattern.compile("<dependency>.*?</dependency>", Pattern.DOTALL);
+        private static final Pattern BOM_ARTIFACT = Pattern.compile("<artifactId>\\s*vaadin-bom\\s*</artifactId>");
+        private static final Pattern VERSION = Pattern.compile("(<version>\\s*)([^<]*?)(\\s*</version>)");
+        private static final Pattern PARENT = Pattern.compile("<parent>(.*?)</parent>", Pattern.DOTALL);
+        private static final Pattern RELATIVE_PATH = Pattern.compile("<relativePath\\s*(?:/>|>\\s*([^<]*?)\\s*</relativePath>)");
+        private static final Pattern MODULE = Pattern.compile("<module>\\s*([^<]+?)\\s*</module>");
+        private static final Pattern PROPERTY_REFERENCE = Pattern.compile("\\$\\{([^}]+)}");
+        private static final Pattern PROPERTIES = Pattern.compile("<properties>(.*?)</properties>", Pattern.DOTALL);
+        private static final Pattern PROPERTY = Pattern.compile("<([^\\s/>]+)>\\s*([^<]*?)\\s*</\\1>");
+        private static final Pattern DEPENDENCY_MANAGEMENT = Pattern.compile("<dependencyManagement>.*?</dependencyManagement>", Pattern.DOTALL);
+        private static final Pattern GROUP_ID = Pattern.compile("<groupId>\\s*([^<]+?)\\s*</groupId>");
+        private static final Pattern ARTIFACT_ID = Pattern.compile("<artifactId>\\s*([^<]+?)\\s*</artifactId>");
+
+        record Rewrite(String originalVersion, List<Path> modifiedFiles) {}
+
+        /**
+         * Set the Vaadin version: the vaadin.version property, literal vaadin-bom versions and
+         * properties that vaadin-bom versions refer to.
+         */
+        static Rewrite setVaadinVersion(Path buildPath, Path projectRoot, String newVersion) throws IOException {
+            Map<Path, String> poms = collectPoms(buildPath, projectRoot);
+            String originalVersion = readVaadinVersion(poms);
+
+            // Properties to update: vaadin.version plus any property a vaadin-bom version refers to
+            Set<String> properties = new LinkedHashSet<>();
+            properties.add(VERSION_PROPERTY);
+            Map<Path, String> updated = new LinkedHashMap<>();
+            for (var pom : poms.entrySet()) {
+                String content = pom.getValue();
+                StringBuilder result = new StringBuilder();
+                int last = 0;
+                for (int[] bom : bomVersionRanges(content)) {
+                    String version = content.substring(bom[0], bom[1]);
+                    Matcher ref = PROPERTY_REFERENCE.matcher(version);
+                    if (ref.matches()) {
+                        properties.add(ref.group(1));
+                    } else {
+                        result.append(content, last, bom[0]).append(newVersion);
+                        last = bom[1];
+                    }
+                }
+                result.append(content, last, content.length());
+                updated.put(pom.getKey(), result.toString());
+            }
+
+            List<Path> modified = new ArrayList<>();
+            for (var pom : updated.entrySet()) {
+                String content = pom.getValue();
+                for (String property : properties) {
+                    content = replaceProperty(content, property, newVersion);
+                }
+                if (!content.equals(poms.get(pom.getKey()))) {
+                    Files.writeString(pom.getKey(), content);
+                    modified.add(pom.getKey());
+                }
+            }
+            return new Rewrite(originalVersion, modified);
+        }
+
+        /**
+         * Read the configured Vaadin version: the vaadin.version property, or the vaadin-bom
+         * version (resolving a property reference) if there is no such property.
+         * @return The version string, or null if not found
+         */
+        static String readVaadinVersion(Path buildPath, Path projectRoot) throws IOException {
+            return readVaadinVersion(collectPoms(buildPath, projectRoot));
+        }
+
+        private static String readVaadinVersion(Map<Path, String> poms) {
+            String version = findProperty(poms, VERSION_PROPERTY);
+            if (version != null) return version;
+            for (String content : poms.values()) {
+                List<int[]> boms = bomVersionRanges(content);
+                if (boms.isEmpty()) continue;
+                String bomVersion = content.substring(boms.get(0)[0], boms.get(0)[1]);
+                Matcher ref = PROPERTY_REFERENCE.matcher(bomVersion);
+                return ref.matches() ? findProperty(poms, ref.group(1)) : bomVersion;
+            }
+            return null;
+        }
+
+        private static String findProperty(Map<Path, String> poms, String property) {
+            Pattern pattern = propertyPattern(property);
+            for (String content : poms.values()) {
+                String visible = withoutComments(content);
+                Matcher m = pattern.matcher(visible);
+                if (m.find() && !m.group(2).isBlank()) return m.group(2);
+            }
+            return null;
+        }
+
+        /**
+         * Collect the POM of the build directory first, then its local parents, then its modules.
+         */
+        static Map<Path, String> collectPoms(Path buildPath, Path projectRoot) throws IOException {
+            Map<Path, String> poms = new LinkedHashMap<>();
+            Path root = projectRoot.toAbsolutePath().normalize();
+            Path pom = buildPath.resolve("pom.xml").toAbsolutePath().normalize();
+            if (!Files.exists(pom)) return poms;
+            poms.put(pom, Files.readString(pom));
+
+            // Local parent chain
+            Path current = pom;
+            while (true) {
+                Matcher parent = PARENT.matcher(withoutComments(poms.get(current)));
+                if (!parent.find()) break;
+                Matcher relativePath = RELATIVE_PATH.matcher(parent.group(1));
+                String relative = relativePath.find() ? relativePath.group(1) : "../pom.xml";
+                if (relative == null || relative.isEmpty()) break;  // <relativePath/>: parent from repository
+                Path parentPom = current.getParent().resolve(relative).normalize();
+                if (Files.isDirectory(parentPom)) parentPom = parentPom.resolve("pom.xml");
+                if (!parentPom.startsWith(root) || !Files.exists(parentPom) || poms.containsKey(parentPom)) break;
+                poms.put(parentPom, Files.readString(parentPom));
+                current = parentPom;
+            }
+
+            // Modules of the build directory, recursively
+            Deque<Path> queue = new ArrayDeque<>(List.of(pom));
+            while (!queue.isEmpty()) {
+                Path modulePom = queue.poll();
+                Matcher module = MODULE.matcher(withoutComments(poms.get(modulePom)));
+                while (module.find()) {
+                    Path child = modulePom.getParent().resolve(module.group(1)).normalize();
+                    if (Files.isDirectory(child)) child = child.resolve("pom.xml");
+                    if (child.startsWith(root) && Files.exists(child) && !poms.containsKey(child)) {
+                        poms.put(child, Files.readString(child));
+                        queue.add(child);
+                    }
+                }
+            }
+            return poms;
+        }
+
+        // Start/end offsets of the version values of vaadin-bom dependencies, outside comments
+        private static List<int[]> bomVersionRanges(String content) {
+            List<int[]> ranges = new ArrayList<>();
+            List<int[]> comments = commentRanges(content);
+            Matcher dependency = DEPENDENCY.matcher(content);
+            while (dependency.find()) {
+                if (inComment(comments, dependency.start())) continue;
+                String block = dependency.group();
+                if (!BOM_ARTIFACT.matcher(block).find() || !block.contains("com.vaadin")) continue;
+                Matcher version = VERSION.matcher(block);
+                if (version.find()) {
+                    int start = dependency.start() + version.start(2);
+                    ranges.add(new int[] { start, start + version.group(2).length() });
+                }
+            }
+            return ranges;
+        }
+
+        private static String replaceProperty(String content, String property, String newVersion) {
+            List<int[]> comments = commentRanges(content);
+            Matcher m = propertyPattern(property).matcher(content);
+            StringBuilder result = new StringBuilder();
+            int last = 0;
+            while (m.find()) {
+                if (inComment(comments, m.start())) continue;
+                result.append(content, last, m.start(2)).append(newVersion);
+                last = m.end(2);
+            }
+            result.append(content, last, content.length());
+            return result.toString();
+        }
+
+        private static Pattern propertyPattern(String property) {
+            String tag = Pattern.quote(property);
+            return Pattern.compile("(<" + tag + ">\\s*)([^<]*?)(\\s*</" + tag + ">)");
+        }
+
+        private static List<int[]> commentRanges(String content) {
+            List<int[]> ranges = new ArrayList<>();
+            Matcher m = COMMENT.matcher(content);
+            while (m.find()) ranges.add(new int[] { m.start(), m.end() });
+            return ranges;
+        }
+
+        private static boolean inComment(List<int[]> comments, int index) {
+            for (int[] range : comments) {
+                if (index >= range[0] && index < range[1]) return true;
+            }
+            return false;
+        }
+
+        private static String withoutComments(String content) {
+            return COMMENT.matcher(content).replaceAll("");
+        }
+
+        /**
+         * The artifacts managed by a BOM, as groupId:artifactId:version with the BOM's own
+         * properties resolved. Imported BOMs are listed themselves, not expanded.
+         */
+        static List<String> managedArtifacts(String bomContent, String bomVersion) {
+            String content = withoutComments(bomContent);
+            Map<String, String> properties = new HashMap<>(Map.of("project.version", bomVersion));
+            Matcher section = PROPERTIES.matcher(content);
+            if (section.find()) {
+                Matcher property = PROPERTY.matcher(section.group(1));
+                while (property.find()) properties.put(property.group(1), property.group(2));
+            }
+            Matcher management = DEPENDENCY_MANAGEMENT.matcher(content);
+            if (!management.find()) return List.of();
+
+            List<String> artifacts = new ArrayList<>();
+            Matcher dependency = DEPENDENCY.matcher(management.group());
+            while (dependency.find()) {
+                Matcher groupId = GROUP_ID.matcher(dependency.group());
+                Matcher artifactId = ARTIFACT_ID.matcher(dependency.group());
+                Matcher version = VERSION.matcher(dependency.group());
+                if (!groupId.find() || !artifactId.find() || !version.find()) continue;
+                String resolved = PROPERTY_REFERENCE.matcher(version.group(2))
+                        .replaceAll(ref -> Matcher.quoteReplacement(properties.getOrDefault(ref.group(1), ref.group())));
+                artifacts.add(groupId.group(1) + ":" + artifactId.group(1) + ":" + resolved);
+            }
+            return artifacts;
+        }
+    }
+
+    /**
+     * The module graph of a multi-module build, read from the POMs like {@link VaadinPom}, for
+     * building only part of the reactor: the modules using Vaadin, minus configured ones, and
+     * (with -am) whatever they depend on or inherit from. Modules of profiles that are active by
+     * default are part of the graph. Modules of other profiles are never selected, as they may
+     * not be active, but they are reported as skipped, since -pl leaves them out if they are.
+     */
+    static class Reactor {
+        private static final Pattern OWN_SECTIONS = Pattern.compile(
+                "<(parent|dependencies|dependencyManagement|build|profiles|reporting)>.*?</\\1>", Pattern.DOTALL);
+        // Sections with <dependency> elements that are not project/dependencies/dependency: managed
+        // versions, plugin dependencies (in build and reporting) and those of profiles
+        private static final Pattern OTHER_DEPENDENCIES = Pattern.compile(
+                "<(dependencyManagement|build|profiles|reporting)>.*?</\\1>", Pattern.DOTALL);
+        private static final Pattern PROFILES = Pattern.compile("<profiles>.*?</profiles>", Pattern.DOTALL);
+        private static final Pattern PROFILE = Pattern.compile("<profile>(.*?)</profile>", Pattern.DOTALL);
+        private static final Pattern ACTIVE_BY_DEFAULT = Pattern.compile("<activeByDefault>\\s*true\\s*</activeByDefault>");
+
+        // A module; dependencies (of project/dependencies) and parent are artifactIds, which are unique within a reactor.
+        // inactiveProfile: declared in (or below a module of) a profile that is not active by default.
+        record Module(Path dir, String artifactId, String parent, Set<String> dependencies, boolean declaresVaadin,
+                      boolean inactiveProfile) {}
+
+        // Modules to build, by path relative to the build directory, and the modules left out
+        record Selection(List<String> modules, List<String> skipped) {
+            List<String> mavenArgs() {
+                return List.of("-pl", String.join(",", modules), "-am");
+            }
+        }
+
+        /**
+         * Select the modules to build below the build directory.
+         * @param vaadinModulesOnly Only modules that depend on Vaadin, directly or through a parent
+         * @param skipModules Modules to leave out, by artifactId or path relative to the build directory
+         * @return The selection, or null if the whole reactor is built anyway
+         */
+        static Selection select(Path buildPath, boolean vaadinModulesOnly, List<String> skipModules) throws IOException {
+            Path root = buildPath.toAbsolutePath().normalize();
+            List<Module> modules = modules(root);
+            Map<String, Module> byArtifactId = new HashMap<>();
+            modules.forEach(module -> byArtifactId.putIfAbsent(module.artifactId(), module));
+
+            List<Module> selected = modules.stream()
+                    .filter(module -> !module.dir().equals(root) && !module.inactiveProfile())
+                    .filter(module -> !vaadinModulesOnly || usesVaadin(module, byArtifactId))
+                    .filter(module -> !skipModules.contains(module.artifactId()) && !skipModules.contains(path(root, module)))
+                    .toList();
+            if (selected.isEmpty()) return null;  // Nothing to narrow the build down to
+
+            // What -am adds: the reactor modules the selected ones depend on or inherit from
+            Set<Path> built = new HashSet<>();
+            Deque<Module> queue = new ArrayDeque<>(selected);
+            while (!queue.isEmpty()) {
+                Module module = queue.poll();
+                if (!built.add(module.dir())) continue;
+                List<String> needed = new ArrayList<>(module.dependencies());
+                if (module.parent() != null) needed.add(module.parent());
+                for (String artifactId : needed) {
+                    Module dependency = byArtifactId.get(artifactId);
+                    if (dependency != null) queue.add(dependency);
+                }
+            }
+            List<String> skipped = modules.stream()
+                    .filter(module -> !module.dir().equals(root) && !module.inactiveProfile() && !built.contains(module.dir()))
+                    .map(module -> path(root, module))
+                    .toList();
+            if (skipped.isEmpty()) return null;  // Maven decides on the profiles' modules
+            List<String> skippedWithProfiles = new ArrayList<>(skipped);
+            modules.stream()
+                    .filter(module -> module.inactiveProfile() && !built.contains(module.dir()))
+                    .forEach(module -> skippedWithProfiles.add(path(root, module)));
+            return new Selection(selected.stream().map(module -> path(root, module)).toList(), skippedWithProfiles);
+        }
+
+        // The build directory's project and its modules, recursively
+        static List<Module> modules(Path buildPath) throws IOException {
+            Path root = buildPath.toAbsolutePath().normalize();
+            List<Module> modules = new ArrayList<>();
+            Set<Path> seen = new HashSet<>();
+            Set<Path> inactive = new HashSet<>();  // Modules of profiles not active by default
+            Deque<Path> queue = new ArrayDeque<>(List.of(root));
+            while (!queue.isEmpty()) {
+                Path dir = queue.poll();
+                Path pom = dir.resolve("pom.xml");
+                if (!seen.add(dir) || !Files.exists(pom)) continue;
+                String content = VaadinPom.withoutComments(Files.readString(pom));
+
+                Matcher parent = VaadinPom.PARENT.matcher(content);
+                String parentId = parent.find() ? find(VaadinPom.ARTIFACT_ID, parent.group(1)) : null;
+                String artifactId = find(VaadinPom.ARTIFACT_ID, OWN_SECTIONS.matcher(content).replaceAll(""));
+                Set<String> dependencies = new HashSet<>();
+                boolean declaresVaadin = false;
+                Matcher dependency = VaadinPom.DEPENDENCY.matcher(OTHER_DEPENDENCIES.matcher(content).replaceAll(""));
+                while (dependency.find()) {
+                    String dependencyId = find(VaadinPom.ARTIFACT_ID, dependency.group());
+                    if (dependencyId != null) dependencies.add(dependencyId);
+                    String groupId = find(VaadinPom.GROUP_ID, dependency.group());
+                    declaresVaadin |= groupId != null && groupId.startsWith("com.vaadin");
+                }
+                boolean inactiveProfile = inactive.contains(dir);
+                modules.add(new Module(dir, artifactId, parentId, dependencies, declaresVaadin, inactiveProfile));
+
+                List<Path> children = childModules(dir, root, PROFILES.matcher(content).replaceAll(""));
+                List<Path> profileChildren = new ArrayList<>();
+                Matcher profiles = PROFILES.matcher(content);
+                while (profiles.find()) {
+                    Matcher profile = PROFILE.matcher(profiles.group());
+                    while (profile.find()) {
+                        List<Path> declared = childModules(dir, root, profile.group(1));
+                        if (ACTIVE_BY_DEFAULT.matcher(profile.group(1)).find()) {
+                            children.addAll(declared);
+                        } else {
+                            profileChildren.addAll(declared);
+                        }
+                    }
+                }
+                for (Path child : children) {
+                    if (inactiveProfile) inactive.add(child);
+                    queue.add(child);
+                }
+                for (Path child : profileChildren) {
+                    if (!children.contains(child)) {
+                        inactive.add(child);
+                        queue.add(child);
+                    }
+                }
+            }
+            return modules;
+        }
+
+        // The directories of the <module> entries in a POM section, within the build directory
+        private static List<Path> childModules(Path dir, Path root, String section) {
+            List<Path> children = new ArrayList<>();
+            Matcher module = VaadinPom.MODULE.matcher(section);
+            while (module.find()) {
+                Path child = dir.resolve(module.group(1)).normalize();
+                if (child.getFileName().toString().endsWith(".xml")) child = child.getParent();  // <module>sub/pom.xml</module>
+                if (child.startsWith(root)) children.add(child);
+            }
+            return children;
+        }
+
+        // Dependencies declared in a reactor parent are inherited
+        private static boolean usesVaadin(Module module, Map<String, Module> byArtifactId) {
+            Set<String> visited = new HashSet<>();
+            for (Module current = module; current != null && visited.add(current.artifactId());
+                 current = current.parent() != null ? byArtifactId.get(current.parent()) : null) {
+                if (current.declaresVaadin()) return true;
+            }
+            return false;
+        }
+
+        private static String path(Path root, Module module) {
+            return root.relativize(module.dir()).toString().replace(File.separatorChar, '/');
+        }
+
+        private static String find(Pattern pattern, String content) {
+            Matcher m = pattern.matcher(content);
+            return m.find() ? m.group(1) : null;
+        }
+    }
+
+    /**
+     * Open build-failure issues, read once at the start of a run.
+     */
+    interface IssueSource {
+        record Issue(String title, String url) {}
+
+        List<Issue> openIssues() throws IOException, InterruptedException;
+
+        // Issues of a GitHub issues API response; pull requests have no /issues/ URL and are skipped
+        static List<Issue> parseGitHubIssues(String json) {
+            return issues(entries(json));
+        }
+
+        static List<Issue> issues(List<?> entries) {
+            List<Issue> issues = new ArrayList<>();
+            for (Object entry : entries) {
+                if (entry instanceof Map<?, ?> fields
+                        && fields.get("html_url") instanceof String url && url.matches(".+/issues/\\d+")
+                        && fields.get("title") instanceof String title) {
+                    issues.add(new Issue(title, url));
+                }
+            }
+            return issues;
+        }
+
+        // The issues and pull requests of a listing
+        static List<?> entries(String json) {
+            if (JsonReader.parse(json) instanceof List<?> entries) return entries;
+            throw new IllegalArgumentException("Expected a JSON array of issues");
+        }
+    }
+
+    /**
+     * Issues from the GitHub REST API, listed by the build-failure label. Pages are cached on disk
+     * with their ETags, so unchanged pages are answered with 304 Not Modified, and the cached pages
+     * are used if GitHub cannot be reached. GITHUB_TOKEN is used when set.
+     */
+    static class GitHubIssueSource implements IssueSource {
+        private static final int PAGE_SIZE = 100;
+
+        private final String apiUrl;
+        private final Path cacheDir;
+
+        GitHubIssueSource(String apiUrl, Path cacheDir) {
+            this.apiUrl = apiUrl;
+            this.cacheDir = cacheDir;
+        }
+
+        @Override
+        public List<Issue> openIssues() throws IOException, InterruptedException {
+            String token = System.getenv("GITHUB_TOKEN");
+            Files.createDirectories(cacheDir);
+
+            List<Issue> issues = new ArrayList<>();
+            int page = 1;
+            try {
+                while (true) {
+                    Path bodyFile = cacheDir.resolve("issues-" + page + ".json");
+                    Path etagFile = cacheDir.resolve("issues-" + page + ".etag");
+                    HttpRequest.Builder request = HttpRequest.newBuilder()
+                            .uri(URI.create(apiUrl + "/issues?state=open&labels=build-failure&per_page=" + PAGE_SIZE + "&page=" + page))
+                            .header("Accept", "application/vnd.github+json")
+                            .timeout(Duration.ofSeconds(10))
+                            .GET();
+                    if (token != null && !token.isBlank()) {
+                        request.header("Authorization", "Bearer " + token);
+                    }
+                    if (Files.exists(bodyFile) && Files.exists(etagFile)) {
+                        request.header("If-None-Match", Files.readString(etagFile).trim());
+                    }
+
+                    HttpResponse<String> response = HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                    String body;
+                    if (response.statusCode() == 304) {
+                        body = Files.readString(bodyFile);
+                    } else if (response.statusCode() == 200) {
+                        body = response.body();
+                    } else {
+                        throw new IOException("GitHub API returned HTTP " + response.statusCode());
+                    }
+                    List<?> entries;
+                    try {
+                        entries = IssueSource.entries(body);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unreadable issues page " + page + ": " + e.getMessage(), e);
+                    }
+                    // Only pages that parse replace the cached ones
+                    if (response.statusCode() == 200) {
+                        Files.writeString(bodyFile, body);
+                        Optional<String> etag = response.headers().firstValue("ETag");
+                        if (etag.isPresent()) {
+                            Files.writeString(etagFile, etag.get());
+                        } else {
+                            Files.deleteIfExists(etagFile);
+                        }
+                    }
+
+                    issues.addAll(IssueSource.issues(entries));
+                    // Pull requests count towards the page size, so check the raw number of entries
+                    if (entries.size() < PAGE_SIZE) break;
+                    page++;
+                }
+            } catch (IOException e) {
+                List<Issue> cached = readCache();
+                if (cached == null) throw e;
+                System.err.println("⚠️  Warning: Could not list open issues (" + Objects.requireNonNullElse(e.getMessage(), e.toString()) + "), using cached issues");
+                return cached;
+            }
+
+            // Pages beyond the last one are stale
+            for (int stale = page + 1; Files.exists(cacheDir.resolve("issues-" + stale + ".json")); stale++) {
+                Files.deleteIfExists(cacheDir.resolve("issues-" + stale + ".json"));
+                Files.deleteIfExists(cacheDir.resolve("issues-" + stale + ".etag"));
+            }
+            return issues;
+        }
+
+        private List<Issue> readCache() throws IOException {
+            if (!Files.exists(cacheDir.resolve("issues-1.json"))) return null;
+            List<Issue> issues = new ArrayList<>();
+            for (int page = 1; Files.exists(cacheDir.resolve("issues-" + page + ".json")); page++) {
+                issues.addAll(IssueSource.parseGitHubIssues(Files.readString(cacheDir.resolve("issues-" + page + ".json"))));
+            }
+            return issues;
+        }
+    }
+
+    /**
+     * Issues from a JSON file in the GitHub issues API format, for tests and offline runs.
+     */
+    static class FileIssueSource implements IssueSource {
+        private final Path file;
+
+        FileIssueSource(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public List<Issue> openIssues() throws IOException {
+            return IssueSource.parseGitHubIssues(Files.readString(file));
+        }
+    }
+
+    /**
+     * Minimal JSON parser for API responses: objects become maps, arrays lists, and numbers
+     * are kept as their text.
+     */
+    static final class JsonReader {
+        private final String json;
+        private int pos;
+
+        private JsonReader(String json) {
+            this.json = json;
+        }
+
+        static Object parse(String json) {
+            JsonReader reader = new JsonReader(json);
+            Object value = reader.value();
+            reader.skipWhitespace();
+            if (reader.pos != json.length()) throw reader.error("Trailing content");
+            return value;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (pos >= json.length()) throw error("Unexpected end");
+            char c = json.charAt(pos);
+            switch (c) {
+                case '{': {
+                    pos++;
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    skipWhitespace();
+                    if (peek('}')) return object;
+                    do {
+                        skipWhitespace();
+                        String key = string();
+                        skipWhitespace();
+                        expect(':');
+                        object.put(key, value());
+                        skipWhitespace();
+                    } while (peek(','));
+                    expect('}');
+                    return object;
+                }
+                case '[': {
+                    pos++;
+                    List<Object> array = new ArrayList<>();
+                    skipWhitespace();
+                    if (peek(']')) return array;
+                    do {
+                        array.add(value());
+                        skipWhitespace();
+                    } while (peek(','));
+                    expect(']');
+                    return array;
+                }
+                case '"':
+                    return string();
+                default: {
+                    int start = pos;
+                    while (pos < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos)) < 0) pos++;
+                    String literal = json.substring(start, pos);
+                    return switch (literal) {
+                        case "true" -> Boolean.TRUE;
+                        case "false" -> Boolean.FALSE;
+                        case "null" -> null;
+                        default -> {
+                            if (literal.isEmpty()) throw error("Unexpected '" + c + "'");
+                            yield literal;
+                        }
+                    };
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                if (pos >= json.length()) throw error("Unterminated string");
+                char c = json.charAt(pos++);
+                if (c == '"') return text.toString();
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                if (pos >= json.length()) throw error("Unterminated string");
+                char escaped = json.charAt(pos++);
+                switch (escaped) {
+                    case 'b' -> text.append('\b');
+                    case 'f' -> text.append('\f');
+                    case 'n' -> text.append('\n');
+                    case 'r' -> text.append('\r');
+                    case 't' -> text.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > json.length()) throw error("Truncated \\u escape");
+                        text.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> text.append(escaped);  // \" \\ and \/
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) pos++;
+        }
+
+        private boolean peek(char c) {
+            if (pos < json.length() && json.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) throw error("Expected '" + c + "'");
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos + " of JSON");
+        }
+    }
+
+    /**
+     * Starts Maven invocations. Every Maven call of the tool (smoke test, version updates,
+     * builds and verification builds) goes through the configured launcher.
+     */
+    interface MavenLauncher {
+        /** Executable name, resolved from PATH. */
+        String executable();
+
+        /** Arguments added in front of every invocation. */
+        List<String> launcherArgs();
+    }
+
+    // Starts a fresh Maven JVM for every invocation
+    static class MvnLauncher implements MavenLauncher {
+        @Override
+        public String executable() {
+            return "mvn";
+        }
+
+        @Override
+        public List<String> launcherArgs() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Sends invocations to warm Maven Daemons, avoiding JVM startup and plugin classloading
+     * on every call. mvnd keeps a separate daemon pool per JAVA_HOME, so projects with a
+     * {@code javaVersion} get daemons of their own JDK, and concurrent builds get separate
+     * daemons. Daemons stay alive between runs until their idle timeout.
+     */
+    static class MvndLauncher implements MavenLauncher {
+        static final String EXECUTABLE = "mvnd";
+
+        @Override
+        public String executable() {
+            return EXECUTABLE;
+        }
+
+        @Override
+        public List<String> launcherArgs() {
+            // mvnd builds reactor modules in parallel by default; keep plain Maven semantics
+            return List.of("-T1");
+        }
+    }
+
+    /**
+     * Append-only build history shared by all Vaadin versions in the work directory.
+     * <p>
+     * Every run appends one tab-separated record per built project to {@code build-history.log}.
+     * A compact index ({@code build-history.idx}), with one line per version and project, keeps the
+     * aggregates needed by the tool and the CI workflow (consecutive passes, last pass, recent
+     * durations), so lookups never need to read the log or walk the archives. Concurrent runs
+     * (e.g. CI jobs for several versions) share both files: saving merges the run's records into
+     * the index on disk while holding a lock, so no run overwrites another's.
+     */
+    static class BuildHistory {
+        static final String LOG_FILE = "build-history.log";
+        static final String INDEX_FILE = "build-history.idx";
+        static final String LOCK_FILE = "build-history.lock";
+        private static final int RECENT_DURATIONS = 5;
+
+        record Record(Instant runAt, String version, String project, BuildStatus status, long durationMs,
+                      String commit, String javaVersion, String resolvedVersion) {}
+
+        record Entry(String version, String project, int runs, int consecutivePasses, int consecutiveFailures,
+                     BuildStatus lastStatus, Instant lastRunAt, Instant lastPassedAt, List<Long> recentDurations,
+                     String lastCommit) {}
+
+        private final Path workPath;
+        private final Map<String, Entry> index = new LinkedHashMap<>();  // version + TAB + project -> entry
+        private final List<Record> pending = new ArrayList<>();
+
+        private BuildHistory(Path workPath) {
+            this.workPath = workPath;
+        }
+
+        /**
+         * Read the index. Lines that do not parse are skipped, and the index is then rebuilt
+         * from the log, which holds every record, so a damaged line never loses history.
+         */
+        static BuildHistory load(Path workPath) {
+            BuildHistory history = new BuildHistory(workPath);
+            Path indexFile = workPath.resolve(INDEX_FILE);
+            if (!Files.exists(indexFile)) return history;
+            int skipped = 0;
+            try {
+                for (String line : Files.readAllLines(indexFile)) {
+                    if (line.isBlank() || line.startsWith("#")) continue;
+                    try {
+                        Entry entry = parseEntry(line.split("\t", -1));
+                        history.index.put(key(entry.version(), entry.project()), entry);
+                    } catch (RuntimeException e) {
+                        skipped++;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️  Warning: Could not read build history index: " + e.getMessage());
+                skipped = -1;
+            }
+            if (skipped != 0) {
+                if (skipped > 0) {
+                    System.err.println("⚠️  Warning: Skipped " + skipped + " unreadable line(s) in the build history index");
+                }
+                history.rebuildFromLog();
+            }
+            return history;
+        }
+
+        private static Entry parseEntry(String[] f) {
+            List<Long> durations = f[8].isEmpty() ? List.of()
+                    : Arrays.stream(f[8].split(",")).map(Long::valueOf).toList();
+            return new Entry(f[0], f[1], Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+                    Integer.parseInt(f[4]), BuildStatus.valueOf(f[5]), parseInstant(f[6]),
+                    parseInstant(f[7]), durations, f[9].isEmpty() ? null : f[9]);
+        }
+
+        /** Replay the log into the index; keeps what was read from the index if there is no log. */
+        private void rebuildFromLog() {
+            Path logFile = workPath.resolve(LOG_FILE);
+            if (!Files.exists(logFile)) return;
+            Map<String, Entry> rebuilt = new LinkedHashMap<>();
+            try {
+                for (String line : Files.readAllLines(logFile)) {
+                    if (line.isBlank() || line.startsWith("#")) continue;
+                    String[] f = line.split("\t", -1);
+                    try {
+                        apply(rebuilt, new Record(Instant.parse(f[0]), f[1], f[2], BuildStatus.valueOf(f[3]),
+                                Long.parseLong(f[4]), emptyToNull(f[5]), emptyToNull(f[6]), emptyToNull(f[7])));
+                    } catch (RuntimeException e) {
+                        // A torn line from an interrupted append; the records around it still count
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️  Warning: Could not read build history log: " + e.getMessage());
+                return;
+            }
+            System.err.println("⚠️  Warning: Rebuilt the build history index from " + LOG_FILE);
+            index.clear();
+            index.putAll(rebuilt);
+        }
+
+        Entry get(String version, String project) {
+            return index.get(key(version, project));
+        }
+
+        /**
+         * Median of the recent durations for the given version, or of the most recently
+         * built version if the project has not been built against this one yet.
+         */
+        Long expectedDuration(String version, String project) {
+            Entry entry = get(version, project);
+            if (entry == null) {
+                entry = index.values().stream()
+                        .filter(e -> e.project().equals(project))
+                        .max(Comparator.comparing(Entry::lastRunAt))
+                        .orElse(null);
+            }
+            if (entry == null || entry.recentDurations().isEmpty()) return null;
+            List<Long> sorted = new ArrayList<>(entry.recentDurations());
+            Collections.sort(sorted);
+            return sorted.get(sorted.size() / 2);
+        }
+
+        void record(Record record) {
+            pending.add(record);
+            apply(index, record);
+        }
+
+        private static void apply(Map<String, Entry> index, Record record) {
+            Entry previous = index.get(key(record.version(), record.project()));
+            boolean passed = record.status() == BuildStatus.PASSED;
+
+            List<Long> durations = new ArrayList<>(previous != null ? previous.recentDurations() : List.of());
+            durations.add(record.durationMs());
+            if (durations.size() > RECENT_DURATIONS) {
+                durations = durations.subList(durations.size() - RECENT_DURATIONS, durations.size());
+            }
+
+            Entry entry = new Entry(record.version(), record.project(),
+                    (previous != null ? previous.runs() : 0) + 1,
+                    passed ? (previous != null ? previous.consecutivePasses() : 0) + 1 : 0,
+                    passed ? 0 : (previous != null ? previous.consecutiveFailures() : 0) + 1,
+                    record.status(), record.runAt(),
+                    passed ? record.runAt() : (previous != null ? previous.lastPassedAt() : null),
+                    List.copyOf(durations),
+                    record.commit() != null ? record.commit() : (previous != null ? previous.lastCommit() : null));
+            index.put(key(record.version(), record.project()), entry);
+        }
+
+        /**
+         * Append pending records to the log and atomically replace the index, with the pending
+         * records applied to the index as it is on disk now.
+         */
+        void save() throws IOException {
+            // File locks are per process; threads of this one take turns on the class
+            synchronized (BuildHistory.class) {
+                try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(workPath.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.lock();  // Released when the channel is closed
+                    Map<String, Entry> current = load(workPath).index;
+                    pending.forEach(record -> apply(current, record));
+                    index.clear();
+                    index.putAll(current);
+                    writeLocked();
+                }
+            }
+        }
+
+        private void writeLocked() throws IOException {
+            Path logFile = workPath.resolve(LOG_FILE);
+            boolean newLog = !Files.exists(logFile);
+            try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (newLog) {
+                    writer.write("# runAt\tversion\tproject\tstatus\tdurationMs\tcommit\tjavaVersion\tresolvedVersion");
+                    writer.newLine();
+                }
+                for (Record r : pending) {
+                    writer.write(String.join("\t", r.runAt().toString(), r.version(), r.project(), r.status().name(),
+                            Long.toString(r.durationMs()), nullToEmpty(r.commit()), nullToEmpty(r.javaVersion()),
+                            nullToEmpty(r.resolvedVersion())));
+                    writer.newLine();
+                }
+            }
+            pending.clear();
+
+            Path tempIndex = workPath.resolve(INDEX_FILE + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempIndex)) {
+                writer.write("# version\tproject\truns\tconsecutivePasses\tconsecutiveFailures\tlastStatus\tlastRunAt\tlastPassedAt\trecentDurationsMs\tlastCommit");
+                writer.newLine();
+                for (Entry e : index.values()) {
+                    writer.write(String.join("\t", e.version(), e.project(), Integer.toString(e.runs()),
+                            Integer.toString(e.consecutivePasses()), Integer.toString(e.consecutiveFailures()),
+                            e.lastStatus().name(), e.lastRunAt().toString(),
+                            e.lastPassedAt() != null ? e.lastPassedAt().toString() : "",
+                            e.recentDurations().stream().map(String::valueOf).collect(java.util.stream.Collectors.joining(",")),
+                            nullToEmpty(e.lastCommit())));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempIndex, workPath.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private static String key(String version, String project) {
+            return version + "\t" + project;
+        }
+
+        private static Instant parseInstant(String value) {
+            return value.isEmpty() ? null : Instant.parse(value);
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+
+        private static String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+    }
+
     public static void main(String... args) {
         int exitCode = new CommandLine(new EcosystemBuild()).execute(args);
         System.exit(exitCode);
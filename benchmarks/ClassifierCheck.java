@@ -0,0 +1,50 @@
+///usr/bin/env jbang "$0" "$@" ; exit $?
+//JAVA 21+
+//DEPS info.picocli:picocli:4.7.6
+//SOURCES ../EcosystemBuild.java
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Feeds the sample build logs in benchmarks/sample-logs/ to the failure classifier, line by line
+ * as a build does, and checks each category against the one its file name starts with, e.g.
+ * test-failure--after-frontend-build.log must be classified as TEST_FAILURE. Run from the
+ * repository root:
+ *
+ *   jbang benchmarks/ClassifierCheck.java
+ */
+public class ClassifierCheck {
+
+    public static void main(String... args) throws IOException {
+        Path samples = Path.of(args.length > 0 ? args[0] : "benchmarks/sample-logs");
+        List<Path> logs;
+        try (var files = Files.list(samples)) {
+            logs = files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Path log : logs) {
+            String fileName = log.getFileName().toString();
+            EcosystemBuild.FailureCategory expected = EcosystemBuild.FailureCategory.valueOf(
+                    fileName.substring(0, fileName.indexOf("--")).toUpperCase().replace('-', '_'));
+            EcosystemBuild.FailureClassifier classifier = new EcosystemBuild.FailureClassifier();
+            Files.readAllLines(log).forEach(classifier);
+            EcosystemBuild.Failure failure = classifier.classify(1);
+
+            boolean matches = failure.category() == expected;
+            System.out.printf("%s %-55s %s%n", matches ? "✅" : "❌", fileName, failure.category());
+            if (!matches) {
+                mismatches.add(fileName + ": expected " + expected + ", got " + failure.category() + " " + failure.excerpt());
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            System.out.println("❌ " + mismatches.size() + " of " + logs.size() + " sample logs misclassified:");
+            mismatches.forEach(m -> System.out.println("   " + m));
+            System.exit(1);
+        }
+        System.out.println("✅ All " + logs.size() + " sample logs classified as expected");
+    }
+}
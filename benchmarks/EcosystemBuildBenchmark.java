@@ -0,0 +1,181 @@
+///usr/bin/env jbang "$0" "$@" ; exit $?
+//JAVA 21+
+//DEPS info.picocli:picocli:4.7.6
+//DEPS org.openjdk.jmh:jmh-core:1.37
+//DEPS org.openjdk.jmh:jmh-generator-annprocess:1.37
+//SOURCES ../EcosystemBuild.java
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the hot paths of EcosystemBuild: capturing build output, rendering log
+ * tails and matching Vaadin versions against version patterns. Run all of them with
+ *
+ *   jbang benchmarks/EcosystemBuildBenchmark.java
+ *
+ * Any JMH options can be given, e.g. only the capture benchmarks, saved to compare with a
+ * later run:
+ *
+ *   jbang benchmarks/EcosystemBuildBenchmark.java capture -rf json -rff baseline.json
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EcosystemBuildBenchmark {
+
+    // A typical line of Maven output
+    static final String OUTPUT_LINE = "[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/com/vaadin/flow-server/25.0.0/flow-server-25.0.0.jar (3.2 MB at 12 MB/s)";
+
+    public static void main(String... args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    // A child process that prints Maven-like output as fast as it can
+    @State(Scope.Benchmark)
+    public static class CaptureState {
+        @Param({"100000"})
+        int lines;
+
+        EcosystemBuild build;
+        Path logFile;
+        List<String> command;
+        double megabytesPerRun;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            build = new EcosystemBuild();
+            logFile = Files.createTempFile("capture-benchmark", ".log");
+            command = List.of("bash", "-c", "yes '" + OUTPUT_LINE + "' | head -n " + lines);
+            megabytesPerRun = (OUTPUT_LINE.length() + 1) * (double) lines / 1_000_000;
+        }
+
+        // The log is appended to, so start every capture from an empty file
+        @Setup(Level.Invocation)
+        public void truncateLog() throws IOException {
+            Files.write(logFile, new byte[0]);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(logFile);
+        }
+
+        Process start() throws IOException {
+            return new ProcessBuilder(command).redirectErrorStream(true).start();
+        }
+    }
+
+    // Reports captured megabytes per second next to the captures per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public double megabytes;
+    }
+
+    // Captures the output the way a build does: log file, live tail and the line listeners of testProject
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int captureOutput(CaptureState state, Throughput throughput) throws Exception {
+        var listener = new EcosystemBuild.FailureClassifier().andThen(new EcosystemBuild.MojoTimer());
+        int exitCode = state.build.readOutputWithTimeout(state.start(), state.logFile, 1, listener);
+        throughput.megabytes += state.megabytesPerRun;
+        return exitCode;
+    }
+
+    // Baseline for captureOutput: the same process with its output discarded, i.e. process and pipe cost only
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int captureBaseline(CaptureState state, Throughput throughput) throws Exception {
+        Process process = state.start();
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        throughput.megabytes += state.megabytesPerRun;
+        return process.waitFor();
+    }
+
+    // A full live tail, rendered into a frame buffer as the status board does
+    @State(Scope.Benchmark)
+    public static class TailState {
+        @Param({"10", "40"})
+        int lines;
+
+        EcosystemBuild build;
+        Path logFile;
+        ByteArrayOutputStream frame;
+        PrintStream out;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            build = new EcosystemBuild();
+            logFile = Path.of("tail-benchmark.log");  // Only its tail is used, the file is never written
+            EcosystemBuild.LogTail tail = build.logTail(logFile);
+            for (int i = 0; i < 200; i++) {
+                tail.add(OUTPUT_LINE + " " + i);
+            }
+            frame = new ByteArrayOutputStream();
+            out = new PrintStream(frame, false);
+        }
+    }
+
+    @Benchmark
+    public int renderTail(TailState state) {
+        state.frame.reset();
+        state.build.printLogTail(state.out, state.logFile, state.lines);
+        state.out.flush();
+        return state.frame.size();
+    }
+
+    // vaadin-bom metadata and version overrides of the sizes found in practice
+    @State(Scope.Benchmark)
+    public static class VersionState {
+        EcosystemBuild build;
+        String metadataXml;
+        List<String> versions;
+        Map<String, EcosystemBuild.VersionConfig> overrides;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            build = new EcosystemBuild();
+            StringBuilder xml = new StringBuilder("<metadata>\n  <groupId>com.vaadin</groupId>\n  <artifactId>vaadin-bom</artifactId>\n  <versioning>\n    <versions>\n");
+            for (int major = 14; major <= 25; major++) {
+                for (int minor = 0; minor <= 9; minor++) {
+                    xml.append("      <version>").append(major).append('.').append(minor).append(".0.alpha1</version>\n");
+                    xml.append("      <version>").append(major).append('.').append(minor).append(".0.beta1</version>\n");
+                    for (int patch = 0; patch <= 12; patch++) {
+                        xml.append("      <version>").append(major).append('.').append(minor).append('.').append(patch).append("</version>\n");
+                    }
+                }
+            }
+            xml.append("    </versions>\n  </versioning>\n</metadata>\n");
+            metadataXml = xml.toString();
+            versions = build.parseVersionsList(metadataXml);
+
+            overrides = new LinkedHashMap<>();
+            overrides.put("24.*", new EcosystemBuild.VersionConfig());
+            overrides.put(">=25.1", new EcosystemBuild.VersionConfig());
+            overrides.put("<23", new EcosystemBuild.VersionConfig());
+        }
+    }
+
+    @Benchmark
+    public List<String> parseVersions(VersionState state) {
+        return state.build.parseVersionsList(state.metadataXml);
+    }
+
+    // Every known version against a project's overrides and the defaults, i.e. the lookups of a full run and more
+    @Benchmark
+    public void findVersionConfig(VersionState state, Blackhole blackhole) {
+        for (String version : state.versions) {
+            blackhole.consume(state.build.findVersionConfig(state.overrides, version));
+        }
+    }
+}
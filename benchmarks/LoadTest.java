@@ -0,0 +1,365 @@
+///usr/bin/env jbang "$0" "$@" ; exit $?
+//JAVA 21+
+//DEPS info.picocli:picocli:4.7.6
+//SOURCES ../EcosystemBuild.java
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+/**
+ * Runs EcosystemBuild against synthetic projects with a fake toolchain, offline. Generates local
+ * git repositories and a projects file, and puts a stub mvn on the PATH and a stub SDKMAN in a
+ * private HOME. Each stub build prints Maven-like output for a configurable time and passes,
+ * fails with a compilation error or hangs until the timeout, as decided per project from the
+ * seed. After the run, the results are checked against what each project was set up to do.
+ * Example, 500 projects on 16 slots:
+ *
+ *   jbang benchmarks/LoadTest.java --projects 500 -j 16
+ *
+ * Arguments after -- are passed to EcosystemBuild, e.g. -- --adaptive.
+ *
+ * With --workers, EcosystemBuild runs as a coordinator on a free local port and hands the builds
+ * out to that many worker processes with -j slots each, so a distributed run is checked against
+ * the same expectations as a local one. The output of each worker goes to
+ * &lt;dir&gt;/worker-&lt;n&gt;.out.
+ */
+@Command(name = "LoadTest", mixinStandardHelpOptions = true,
+        description = "Load-tests EcosystemBuild with synthetic projects and stub tools, offline")
+public class LoadTest implements Callable<Integer> {
+
+    private static final String VAADIN_VERSION = "25.0.0";
+    private static final String ORIGINAL_VERSION = "24.8.0";
+
+    @Option(names = {"--projects", "-n"}, description = "Number of synthetic projects (default: 500)", defaultValue = "500")
+    private int projects;
+
+    @Option(names = {"--buildThreads", "-j"}, description = "Number of concurrent builds (default: 16)", defaultValue = "16")
+    private int buildThreads;
+
+    @Option(names = {"--lines"}, description = "Output lines per build (default: 2000)", defaultValue = "2000")
+    private int lines;
+
+    @Option(names = {"--duration"}, description = "Mean build duration in milliseconds, varied by ±50% (default: 2000)", defaultValue = "2000")
+    private int durationMs;
+
+    @Option(names = {"--fail-rate"}, description = "Share of builds that fail (default: 0.05)", defaultValue = "0.05")
+    private double failRate;
+
+    @Option(names = {"--hang-rate"}, description = "Share of builds that hang until the timeout (default: 0.01)", defaultValue = "0.01")
+    private double hangRate;
+
+    @Option(names = {"--timeout", "-t"}, description = "Build timeout in minutes (default: 1)", defaultValue = "1")
+    private int timeoutMinutes;
+
+    @Option(names = {"--seed"}, description = "Seed for the project behaviors (default: 1)", defaultValue = "1")
+    private long seed;
+
+    @Option(names = {"--dir"}, description = "Directory for the repositories, stubs and work directory (default: loadtest)", defaultValue = "loadtest")
+    private Path dir;
+
+    @Option(names = {"--quiet"}, description = "Write the output of EcosystemBuild to <dir>/ecosystem-build.out instead of the terminal")
+    private boolean quiet;
+
+    @Option(names = {"--workers"}, description = "Build on this many local worker processes with -j slots each, through a coordinator (default: 0, build locally)", defaultValue = "0")
+    private int workers;
+
+    @Parameters(description = "Extra arguments for EcosystemBuild")
+    private List<String> extraArgs = List.of();
+
+    // What a synthetic project's build does
+    enum Behavior { PASS, FAIL, HANG }
+
+    record Project(String name, boolean app, Behavior behavior, int durationMs) {}
+
+    @Override
+    public Integer call() throws Exception {
+        dir = dir.toAbsolutePath();
+        Path bin = Files.createDirectories(dir.resolve("bin"));
+        Path home = dir.resolve("home");
+        Path repos = dir.resolve("repos");
+        Path work = dir.resolve("work");
+
+        writeStubs(bin, home);
+        List<Project> generated = generateProjects();
+        System.out.printf("🏗️  Creating %d repositories in %s%n", generated.size(), repos);
+        createRepositories(repos, generated);
+
+        Path projectsFile = dir.resolve("projects.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(projectsFile)) {
+            for (Project project : generated) {
+                writer.write((project.app() ? "app " : "addon ") + project.name() + " " + repos.resolve(project.name()).toUri());
+                writer.newLine();
+            }
+        }
+        Path issues = dir.resolve("issues.json");
+        Files.writeString(issues, "[]\n");
+
+        int slots = workers > 0 ? workers * buildThreads : buildThreads;
+        List<String> common = List.of("-t", String.valueOf(timeoutMinutes), "--no-cache",
+                "--projects-file", projectsFile.toString(), "--issues-source", issues.toString());
+        List<String> command = new ArrayList<>(List.of("-v", VAADIN_VERSION, "-w", work.toString()));
+        command.addAll(common);
+        int port = 0;
+        if (workers > 0) {
+            port = freePort();
+            command.addAll(List.of("--coordinator", String.valueOf(port)));  // Builds on the workers' slots
+        } else {
+            command.addAll(List.of("-j", String.valueOf(buildThreads)));
+        }
+        command.addAll(extraArgs);
+        ProcessBuilder pb = ecosystemBuild(command, bin, home);
+        if (quiet) {
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(dir.resolve("ecosystem-build.out").toFile());
+        } else {
+            pb.inheritIO();
+        }
+
+        System.out.printf("🚀 Building %d projects on %d slots%s%n", generated.size(), slots,
+                workers > 0 ? " of " + workers + " workers" : "");
+        long start = System.currentTimeMillis();
+        Process coordinator = pb.start();
+        List<Process> workerProcesses = new ArrayList<>();
+        for (int i = 1; i <= workers; i++) {
+            List<String> workerCommand = new ArrayList<>(List.of("-w", dir.resolve("worker-" + i).toString(),
+                    "-j", String.valueOf(buildThreads), "--worker", "localhost:" + port));
+            workerCommand.addAll(common);
+            workerCommand.addAll(extraArgs);
+            workerProcesses.add(ecosystemBuild(workerCommand, bin, home)
+                    .redirectErrorStream(true)
+                    .redirectOutput(dir.resolve("worker-" + i + ".out").toFile())
+                    .start());
+        }
+        int exitCode = coordinator.waitFor();
+        long wallMs = System.currentTimeMillis() - start;
+
+        // Workers finish once the coordinator tells them the run is over
+        List<String> workerFailures = new ArrayList<>();
+        for (int i = 0; i < workerProcesses.size(); i++) {
+            Process worker = workerProcesses.get(i);
+            if (!worker.waitFor(1, TimeUnit.MINUTES)) {
+                worker.destroyForcibly();
+                workerFailures.add("worker-" + (i + 1) + ": still running after the coordinator finished");
+            } else if (worker.exitValue() != 0) {
+                workerFailures.add("worker-" + (i + 1) + ": exited with " + worker.exitValue() + ", see worker-" + (i + 1) + ".out");
+            }
+        }
+
+        return report(generated, work.resolve(VAADIN_VERSION).resolve("results.json"), exitCode, wallMs, slots, workerFailures);
+    }
+
+    private ProcessBuilder ecosystemBuild(List<String> args, Path bin, Path home) {
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"), "EcosystemBuild"));
+        command.addAll(args);
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.environment().put("PATH", bin + File.pathSeparator + System.getenv("PATH"));
+        pb.environment().put("HOME", home.toString());
+        return pb;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private List<Project> generateProjects() {
+        Random random = new Random(seed);
+        List<Project> generated = new ArrayList<>();
+        for (int i = 0; i < projects; i++) {
+            double roll = random.nextDouble();
+            Behavior behavior = roll < hangRate ? Behavior.HANG : roll < hangRate + failRate ? Behavior.FAIL : Behavior.PASS;
+            int duration = (int) (durationMs * (0.5 + random.nextDouble()));
+            generated.add(new Project(String.format("project-%03d", i), i % 5 == 4, behavior, duration));
+        }
+        return generated;
+    }
+
+    // One commit per repository, with the POM the version rewrite expects and the stub's settings
+    private void createRepositories(Path repos, List<Project> generated) throws Exception {
+        deleteDirectory(repos);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Project project : generated) {
+                futures.add(executor.submit(() -> {
+                    Path repo = Files.createDirectories(repos.resolve(project.name()));
+                    Files.writeString(repo.resolve("pom.xml"), """
+                            <project>
+                                <modelVersion>4.0.0</modelVersion>
+                                <groupId>org.example.loadtest</groupId>
+                                <artifactId>%s</artifactId>
+                                <version>1.0</version>
+                                <properties>
+                                    <vaadin.version>%s</vaadin.version>
+                                </properties>
+                            </project>
+                            """.formatted(project.name(), ORIGINAL_VERSION));
+                    Files.writeString(repo.resolve("stub.properties"), """
+                            lines=%d
+                            duration_ms=%d
+                            behavior=%s
+                            """.formatted(lines, project.durationMs(), project.behavior().name().toLowerCase()));
+                    git(repo, "init", "-q", "-b", "main");
+                    git(repo, "add", ".");
+                    git(repo, "-c", "user.name=loadtest", "-c", "user.email=loadtest@example.org", "commit", "-q", "-m", "Synthetic project");
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void git(Path repo, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).directory(repo.toFile()).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        if (process.waitFor() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " failed in " + repo + ": " + output);
+        }
+    }
+
+    /**
+     * The stub mvn answers the smoke test's archetype:generate and builds the smoke test project
+     * at once. Project builds print their output in ten steps spread over the configured
+     * duration, with the mojo headers of a real build, then pass, fail or hang. The stub SDKMAN
+     * accepts any Java version.
+     */
+    private static void writeStubs(Path bin, Path home) throws IOException {
+        Path mvn = bin.resolve("mvn");
+        Files.writeString(mvn, """
+                #!/bin/bash
+                # Stub Maven for LoadTest: behaves as stub.properties in the build directory says
+                if [[ " $* " == *" archetype:generate "* ]]; then
+                  mkdir -p smoke-test
+                  printf '<project><properties><vaadin.version>%s</vaadin.version></properties></project>\\n' > smoke-test/pom.xml
+                  echo "[INFO] BUILD SUCCESS"; exit 0
+                fi
+                if [[ ! -f stub.properties ]]; then echo "[INFO] BUILD SUCCESS"; exit 0; fi
+                . ./stub.properties
+                module=$(basename "$PWD")
+                step_lines=$(( lines / 10 ))
+                step_sleep=$(printf '%%d.%%03d' $(( duration_ms / 10000 )) $(( duration_ms / 10 %% 1000 )))
+                for step in 0 1 2 3 4 5 6 7 8 9; do
+                  case $step in
+                    0) echo "[INFO] --- compiler:3.13.0:compile (default-compile) @ $module ---" ;;
+                    3) echo "[INFO] --- vaadin:%s:prepare-frontend (default) @ $module ---" ;;
+                    7) echo "[INFO] --- surefire:3.2.5:test (default-test) @ $module ---" ;;
+                  esac
+                  yes "[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/com/vaadin/flow-server/%s/flow-server.jar (3.2 MB at 12 MB/s)" | head -n $step_lines
+                  sleep $step_sleep
+                  if [[ $step == 1 && $behavior == fail ]]; then
+                    echo "[ERROR] COMPILATION ERROR :"
+                    echo "[ERROR] /build/src/main/java/org/example/View.java:[12,8] cannot find symbol"
+                    echo "[ERROR]   symbol:   method setPageSize(int)"
+                    echo "[ERROR]   location: class com.vaadin.flow.component.grid.Grid<T>"
+                    echo "[ERROR] Failed to execute goal org.apache.maven.plugins:maven-compiler-plugin:3.13.0:compile (default-compile) on project $module: Compilation failure"
+                    echo "[INFO] BUILD FAILURE"
+                    exit 1
+                  fi
+                  if [[ $step == 4 && $behavior == hang ]]; then
+                    exec sleep 86400
+                  fi
+                done
+                echo "[INFO] BUILD SUCCESS"
+                """.formatted(VAADIN_VERSION, VAADIN_VERSION, VAADIN_VERSION));
+        Files.setPosixFilePermissions(mvn, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        Path sdkmanInit = Files.createDirectories(home.resolve(".sdkman").resolve("bin")).resolve("sdkman-init.sh");
+        Files.writeString(sdkmanInit, """
+                # Stub SDKMAN for LoadTest: every Java version is installed and current
+                sdk() { return 0; }
+                """);
+    }
+
+    /**
+     * Compare every project's status in results.json with its behavior and print the timing.
+     * The ideal time is the sum of the build durations divided by the slots, ignoring hangs.
+     */
+    private int report(List<Project> generated, Path resultsFile, int exitCode, long wallMs, int slots,
+                       List<String> workerFailures) throws IOException {
+        if (!Files.exists(resultsFile)) {
+            System.err.println("❌ No results.json written, EcosystemBuild exited with " + exitCode);
+            return 1;
+        }
+        String json = Files.readString(resultsFile);
+        Map<String, String> statuses = new HashMap<>();
+        Map<String, String> categories = new HashMap<>();
+        Matcher block = Pattern.compile("\"(project-\\d+)\": \\{(.*?)\\n    }", Pattern.DOTALL).matcher(json);
+        while (block.find()) {
+            Matcher status = Pattern.compile("\"status\": \"(\\w+)\"").matcher(block.group(2));
+            if (status.find()) statuses.put(block.group(1), status.group(1));
+            Matcher category = Pattern.compile("\"category\": \"(\\w+)\"").matcher(block.group(2));
+            if (category.find()) categories.put(block.group(1), category.group(1));
+        }
+
+        List<String> mismatches = new ArrayList<>(workerFailures);
+        Map<Behavior, Integer> counts = new EnumMap<>(Behavior.class);
+        long totalBuildMs = 0;
+        for (Project project : generated) {
+            counts.merge(project.behavior(), 1, Integer::sum);
+            if (project.behavior() != Behavior.HANG) totalBuildMs += project.durationMs();
+            String expectedStatus = project.behavior() == Behavior.PASS ? "PASSED" : "FAILED";
+            String expectedCategory = switch (project.behavior()) {
+                case PASS -> null;
+                case FAIL -> "VAADIN_API_COMPILATION";
+                case HANG -> "TIMEOUT";
+            };
+            String status = statuses.get(project.name());
+            String category = categories.get(project.name());
+            if (!expectedStatus.equals(status) || !Objects.equals(expectedCategory, category)) {
+                mismatches.add(project.name() + ": expected " + expectedStatus + (expectedCategory != null ? " (" + expectedCategory + ")" : "")
+                        + ", got " + status + (category != null ? " (" + category + ")" : ""));
+            }
+        }
+        int expectedExitCode = counts.getOrDefault(Behavior.PASS, 0) == generated.size() ? 0 : 1;
+
+        System.out.println();
+        System.out.println("=".repeat(60));
+        System.out.printf("📊 %d projects (%d pass, %d fail, %d hang) on %d slots%n", generated.size(),
+                counts.getOrDefault(Behavior.PASS, 0), counts.getOrDefault(Behavior.FAIL, 0),
+                counts.getOrDefault(Behavior.HANG, 0), slots);
+        System.out.printf("⏱️  Wall time: %.1fs, ideal build time: %.1fs%n", wallMs / 1000.0,
+                totalBuildMs / 1000.0 / slots);
+        if (exitCode != expectedExitCode) {
+            mismatches.add("exit code: expected " + expectedExitCode + ", got " + exitCode);
+        }
+        if (mismatches.isEmpty()) {
+            System.out.println("✅ All results as expected");
+            return 0;
+        }
+        System.out.println("❌ " + mismatches.size() + " unexpected results:");
+        mismatches.forEach(m -> System.out.println("   " + m));
+        return 1;
+    }
+
+    private static void deleteDirectory(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        try (var paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    public static void main(String... args) {
+        System.exit(new CommandLine(new LoadTest()).execute(args));
+    }
+}